@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+#
+# Measures time-to-first-successful-request for the default build and for the
+# fast-startup build (-Pfast-startup), and prints both side by side.
+#
+# Usage: scripts/startup-benchmark.sh [runs]
+#
+# Requires the database configured in application.properties to be reachable.
+# Environment: PORT (default 8080), PROBE_PATH (default /api/v1/categories).
+
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${PORT:-8080}"
+PROBE_PATH="${PROBE_PATH:-/api/v1/categories}"
+PROJECT_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+WORK_DIR="$(mktemp -d)"
+trap 'rm -rf "$WORK_DIR"' EXIT
+
+cd "$PROJECT_DIR"
+
+echo "Building default jar..."
+sh ./mvnw -q -B -DskipTests clean package
+mkdir -p "$WORK_DIR/default"
+cp target/MovieManagement-0.0.1-SNAPSHOT.jar "$WORK_DIR/default/app.jar"
+
+echo "Building fast-startup jar (AOT + CDS)..."
+# The CDS archive is only valid for the jar paths used in the training run, so this build is run in place.
+sh ./mvnw -q -B -DskipTests -Pfast-startup clean package
+
+now_ms() {
+    date +%s%3N
+}
+
+# Starts the given command and prints the milliseconds until PROBE_PATH returns 200.
+time_to_first_request() {
+    local start pid elapsed
+    start="$(now_ms)"
+    "$@" --server.port="$PORT" > "$WORK_DIR/app.log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "http://localhost:${PORT}${PROBE_PATH}"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Application exited before serving a request, see log:" >&2
+            cat "$WORK_DIR/app.log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( $(now_ms) - start ))
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$elapsed"
+}
+
+benchmark() {
+    local label="$1"
+    shift
+    local total=0 result
+    for run in $(seq 1 "$RUNS"); do
+        result="$(time_to_first_request "$@")"
+        echo "  ${label} run ${run}: ${result} ms" >&2
+        total=$(( total + result ))
+    done
+    echo $(( total / RUNS ))
+}
+
+echo "Running ${RUNS} runs per build against http://localhost:${PORT}${PROBE_PATH}"
+DEFAULT_MS="$(benchmark default java -jar "$WORK_DIR/default/app.jar")"
+FAST_MS="$(benchmark fast-startup java \
+    -XX:SharedArchiveFile="$PROJECT_DIR/target/application.jsa" \
+    -Dspring.aot.enabled=true \
+    -Dspring.profiles.active=prod \
+    -jar "$PROJECT_DIR/target/MovieManagement-0.0.1-SNAPSHOT.jar")"
+
+echo
+echo "Time to first successful request (average of ${RUNS}):"
+echo "  default:      ${DEFAULT_MS} ms"
+echo "  fast-startup: ${FAST_MS} ms"
@@ -0,0 +1,55 @@
+package org.kurgu.moviemanagement.Config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.kurgu.moviemanagement.Services.AdaptiveLimiter;
+import org.kurgu.moviemanagement.Services.AdmissionControlService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionControlInterceptor.class);
+    private static final String LIMITER_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".limiter";
+    private static final String START_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".start";
+
+    private final AdmissionControlService admissionControlService;
+
+    public AdmissionControlInterceptor(AdmissionControlService admissionControlService) {
+        this.admissionControlService = admissionControlService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!admissionControlService.isEnabled() || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        String endpoint = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        AdaptiveLimiter limiter = admissionControlService.limiterFor(endpoint);
+        if (!limiter.tryAcquire()) {
+            log.warn("Shedding {} {}: {} is at its concurrency limit of {}.",
+                    request.getMethod(), request.getRequestURI(), endpoint, limiter.getLimit());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(admissionControlService.getRetryAfterSeconds()));
+            return false;
+        }
+        request.setAttribute(LIMITER_ATTRIBUTE, limiter);
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object limiter = request.getAttribute(LIMITER_ATTRIBUTE);
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (limiter instanceof AdaptiveLimiter adaptiveLimiter && start instanceof Long startNanos) {
+            request.removeAttribute(LIMITER_ATTRIBUTE);
+            boolean succeeded = ex == null && response.getStatus() < 400;
+            adaptiveLimiter.release(System.nanoTime() - startNanos, succeeded);
+        }
+    }
+}
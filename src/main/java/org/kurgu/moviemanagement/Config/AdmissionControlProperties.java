@@ -0,0 +1,46 @@
+package org.kurgu.moviemanagement.Config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "moviemanagement.admission")
+public class AdmissionControlProperties {
+
+    private boolean enabled = true;
+
+    private int retryAfterSeconds = 1;
+
+    private Limit defaults = new Limit(20, 2, 50, 250L);
+
+    // Keyed by "<ControllerClass>.<method>", e.g. "ClassificationController.getAllClassifications".
+    // Settings left out of an endpoint entry fall back to the configured defaults.
+    private Map<String, Limit> endpoints = new HashMap<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private Integer initialLimit;
+        private Integer minLimit;
+        private Integer maxLimit;
+        private Long targetLatencyMs;
+    }
+
+    public Limit limitFor(String endpoint) {
+        Limit override = endpoints.get(endpoint);
+        if (override == null) {
+            return defaults;
+        }
+        return new Limit(
+                override.getInitialLimit() != null ? override.getInitialLimit() : defaults.getInitialLimit(),
+                override.getMinLimit() != null ? override.getMinLimit() : defaults.getMinLimit(),
+                override.getMaxLimit() != null ? override.getMaxLimit() : defaults.getMaxLimit(),
+                override.getTargetLatencyMs() != null ? override.getTargetLatencyMs() : defaults.getTargetLatencyMs());
+    }
+}
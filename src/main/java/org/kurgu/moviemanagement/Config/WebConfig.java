@@ -0,0 +1,26 @@
+package org.kurgu.moviemanagement.Config;
+
+import org.kurgu.moviemanagement.Services.AdmissionControlService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+public class WebConfig implements WebMvcConfigurer {
+
+    private final AdmissionControlService admissionControlService;
+
+    @Autowired
+    public WebConfig(AdmissionControlService admissionControlService) {
+        this.admissionControlService = admissionControlService;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AdmissionControlInterceptor(admissionControlService))
+                .addPathPatterns("/api/v1/movies/**", "/api/v1/categories/**", "/api/v1/classifications/**");
+    }
+}
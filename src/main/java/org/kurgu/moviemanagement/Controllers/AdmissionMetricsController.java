@@ -0,0 +1,35 @@
+package org.kurgu.moviemanagement.Controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.kurgu.moviemanagement.DTOs.AdmissionMetricsDTO;
+import org.kurgu.moviemanagement.Services.AdmissionControlService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admission")
+@Tag(name = "Admission Control", description = "APIs for inspecting per-endpoint concurrency limits")
+public class AdmissionMetricsController {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionMetricsController.class);
+    private final AdmissionControlService admissionControlService;
+
+    @Autowired
+    public AdmissionMetricsController(AdmissionControlService admissionControlService) {
+        this.admissionControlService = admissionControlService;
+    }
+
+    @GetMapping("/metrics")
+    @Operation(summary = "Get admission metrics", description = "Returns the current limit, in-flight count, admitted and shed request counts and smoothed latency for each endpoint.")
+    public List<AdmissionMetricsDTO> getMetrics() {
+        log.info("GET /api/v1/admission/metrics called");
+        return admissionControlService.getMetrics();
+    }
+}
@@ -10,7 +10,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.kurgu.moviemanagement.Models.Category;
 import org.kurgu.moviemanagement.Repositories.CategoryRepository;
 import org.kurgu.moviemanagement.Repositories.ClassificationRepository;
+import org.kurgu.moviemanagement.Services.CatalogWriteService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -29,12 +31,15 @@ public class CategoryController {
     private static final Logger log = LoggerFactory.getLogger(CategoryController.class);
     private final CategoryRepository categoryRepository;
     private final ClassificationRepository classificationRepository;
+    private final CatalogWriteService catalogWriteService;
 
 
     @Autowired
-    public CategoryController(CategoryRepository categoryRepository, ClassificationRepository classificationRepository) {
+    public CategoryController(CategoryRepository categoryRepository, ClassificationRepository classificationRepository,
+                              CatalogWriteService catalogWriteService) {
         this.categoryRepository = categoryRepository;
         this.classificationRepository = classificationRepository;
+        this.catalogWriteService = catalogWriteService;
     }
 
     @GetMapping
@@ -58,7 +63,7 @@ public class CategoryController {
         Optional<Category> category = categoryRepository.findById(id);
         if (category.isPresent()) {
             log.info("Category found with ID: {}", id);
-            return ResponseEntity.ok(category.get());
+            return ResponseEntity.ok().eTag(VersionHeaders.eTag(category.get().getVersion())).body(category.get());
         } else {
             log.warn("Category not found with ID: {}", id);
             return ResponseEntity.notFound().build();
@@ -83,10 +88,9 @@ public class CategoryController {
                 log.warn("Attempted to create category with empty name.");
                 return ResponseEntity.badRequest().build();
             }
-            category.setCategory_id(0);
-            Category savedCategory = categoryRepository.save(category);
+            Category savedCategory = catalogWriteService.createCategory(category);
             log.info("Category created successfully with ID: {}", savedCategory.getCategory_id());
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedCategory);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(VersionHeaders.eTag(savedCategory.getVersion())).body(savedCategory);
         } catch (Exception e) {
             log.error("Error creating category: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -94,31 +98,39 @@ public class CategoryController {
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update an existing category", description = "Updates the category with the given ID. Only the 'name' field is updated.")
+    @Operation(summary = "Update an existing category", description = "Updates the category with the given ID in a single statement. Only the 'name' field is updated. Send the ETag from a previous read as 'If-Match' to reject the update if the category has changed since.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Category updated successfully",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = Category.class))),
-            @ApiResponse(responseCode = "400", description = "Invalid input, category name cannot be empty", content = @Content),
-            @ApiResponse(responseCode = "404", description = "Category not found with the given ID", content = @Content)
+            @ApiResponse(responseCode = "400", description = "Invalid input, category name cannot be empty, or invalid If-Match header", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Category not found with the given ID", content = @Content),
+            @ApiResponse(responseCode = "412", description = "Category was modified since the version given in If-Match", content = @Content)
     })
     public ResponseEntity<Category> updateCategory(
             @Parameter(description = "ID of the category to update", required = true)
             @PathVariable int id,
+            @Parameter(description = "ETag of the category version this update is based on")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Updated category object. Only 'name' will be used.", required = true,
                     content = @Content(schema = @Schema(implementation = Category.class)))
             @RequestBody Category categoryDetails) {
         log.info("PUT /api/v1/categories/{} called with body: {}", id, categoryDetails);
-        Optional<Category> optionalCategory = categoryRepository.findById(id);
-        if (optionalCategory.isPresent()) {
-            Category existingCategory = optionalCategory.get();
-            if (categoryDetails.getName() == null || categoryDetails.getName().trim().isEmpty()) {
-                log.warn("Attempted to update category ID {} with empty name.", id);
-                return ResponseEntity.badRequest().build();
-            }
-            existingCategory.setName(categoryDetails.getName());
-            Category updatedCategory = categoryRepository.save(existingCategory);
+        if (categoryDetails.getName() == null || categoryDetails.getName().trim().isEmpty()) {
+            log.warn("Attempted to update category ID {} with empty name.", id);
+            return ResponseEntity.badRequest().build();
+        }
+        List<Long> versions = VersionHeaders.parseIfMatch(ifMatch);
+        if (versions == null) {
+            log.warn("Invalid If-Match header for category ID {}: {}", id, ifMatch);
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<Category> updatedCategory = catalogWriteService.updateCategory(id, categoryDetails.getName(), versions);
+        if (updatedCategory.isPresent()) {
             log.info("Category updated successfully for ID: {}", id);
-            return ResponseEntity.ok(updatedCategory);
+            return ResponseEntity.ok().eTag(VersionHeaders.eTag(updatedCategory.get().getVersion())).body(updatedCategory.get());
+        } else if (!VersionHeaders.isUnconditional(versions) && categoryRepository.existsById(id)) {
+            log.warn("Update failed. Category ID {} no longer matches If-Match {}.", id, versions);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         } else {
             log.warn("Update failed. Category not found with ID: {}", id);
             return ResponseEntity.notFound().build();
@@ -126,34 +138,43 @@ public class CategoryController {
     }
 
     @DeleteMapping("/{id}")
-    @Operation(summary = "Delete a category", description = "Deletes the category with the given ID.")
+    @Operation(summary = "Delete a category", description = "Deletes the category with the given ID in a single guarded statement. Send the ETag from a previous read as 'If-Match' to delete only that version.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Category deleted successfully", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid If-Match header", content = @Content),
             @ApiResponse(responseCode = "404", description = "Category not found with the given ID", content = @Content),
-            @ApiResponse(responseCode = "409", description = "Conflict, category cannot be deleted (e.g., due to existing classifications)", content = @Content)
+            @ApiResponse(responseCode = "409", description = "Conflict, category cannot be deleted (e.g., due to existing classifications)", content = @Content),
+            @ApiResponse(responseCode = "412", description = "Category was modified since the version given in If-Match", content = @Content)
     })
     public ResponseEntity<Void> deleteCategory(
             @Parameter(description = "ID of the category to delete", required = true)
-            @PathVariable int id) {
+            @PathVariable int id,
+            @Parameter(description = "ETag of the category version to delete")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("DELETE /api/v1/categories/{} called", id);
-        if (categoryRepository.existsById(id)) {
-            try {
-                boolean hasClassifications = classificationRepository.existsByCategoryId(id);
-                if (hasClassifications) {
-                    log.warn("Conflict deleting category ID {}: It has existing classifications.", id);
-                    return ResponseEntity.status(HttpStatus.CONFLICT).build();
-                }
-
-                categoryRepository.deleteById(id);
+        List<Long> versions = VersionHeaders.parseIfMatch(ifMatch);
+        if (versions == null) {
+            log.warn("Invalid If-Match header for category ID {}: {}", id, ifMatch);
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            if (catalogWriteService.deleteCategory(id, versions).isPresent()) {
                 log.info("Category deleted successfully with ID: {}", id);
                 return ResponseEntity.noContent().build();
-            } catch (Exception e) {
-                log.error("Error deleting category ID {}: {}", id, e.getMessage(), e);
+            }
+            if (!categoryRepository.existsById(id)) {
+                log.warn("Delete failed. Category not found with ID: {}", id);
+                return ResponseEntity.notFound().build();
+            }
+            if (classificationRepository.existsByCategoryId(id)) {
+                log.warn("Conflict deleting category ID {}: It has existing classifications.", id);
                 return ResponseEntity.status(HttpStatus.CONFLICT).build();
             }
-        } else {
-            log.warn("Delete failed. Category not found with ID: {}", id);
-            return ResponseEntity.notFound().build();
+            log.warn("Delete failed. Category ID {} no longer matches If-Match {}.", id, versions);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (Exception e) {
+            log.error("Error deleting category ID {}: {}", id, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package org.kurgu.moviemanagement.Controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.kurgu.moviemanagement.Models.ChangeLogEntry;
+import org.kurgu.moviemanagement.Services.ChangeFeedService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/changes")
+@Tag(name = "Change Feed", description = "APIs for consuming catalog changes incrementally")
+public class ChangeFeedController {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedController.class);
+    private final ChangeFeedService changeFeedService;
+
+    @Autowired
+    public ChangeFeedController(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Poll changes", description = "Returns change log entries with a sequence greater than 'since', in sequence order.")
+    public List<ChangeLogEntry> getChanges(
+            @Parameter(description = "Last sequence already consumed (0 to start from the beginning)")
+            @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Maximum number of entries to return")
+            @RequestParam(defaultValue = "100") int limit) {
+        log.info("GET /api/v1/changes called with since={}, limit={}", since, limit);
+        return changeFeedService.getChangesSince(since, limit);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream changes", description = "Streams change log entries over Server-Sent Events. Each event id is the entry's sequence. A reconnect resumes after the Last-Event-ID header; 'since' only applies to the first connect.")
+    public SseEmitter streamChanges(
+            @Parameter(description = "Last sequence already consumed on the first connect (0 to start from the beginning)")
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        // EventSource reconnects to the same URL, so Last-Event-ID must win over the original 'since'.
+        long start = lastEventId != null ? lastEventId : (since != null ? since : 0);
+        log.info("GET /api/v1/changes/stream called, resuming after sequence {}", start);
+        return changeFeedService.subscribe(start);
+    }
+}
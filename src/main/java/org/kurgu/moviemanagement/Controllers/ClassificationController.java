@@ -15,7 +15,12 @@ import org.kurgu.moviemanagement.Models.Movie;
 import org.kurgu.moviemanagement.Repositories.CategoryRepository;
 import org.kurgu.moviemanagement.Repositories.ClassificationRepository;
 import org.kurgu.moviemanagement.Repositories.MovieRepository;
+import org.kurgu.moviemanagement.Services.CatalogWriteService;
+import org.kurgu.moviemanagement.Services.IdRegistryService;
+import org.kurgu.moviemanagement.Services.MissingReferenceException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -23,7 +28,6 @@ import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -39,14 +43,20 @@ public class ClassificationController {
     private final ClassificationRepository classificationRepository;
     private final MovieRepository movieRepository;
     private final CategoryRepository categoryRepository;
+    private final CatalogWriteService catalogWriteService;
+    private final IdRegistryService idRegistryService;
 
     @Autowired
     public ClassificationController(ClassificationRepository classificationRepository,
                                     MovieRepository movieRepository,
-                                    CategoryRepository categoryRepository) {
+                                    CategoryRepository categoryRepository,
+                                    CatalogWriteService catalogWriteService,
+                                    IdRegistryService idRegistryService) {
         this.classificationRepository = classificationRepository;
         this.movieRepository = movieRepository;
         this.categoryRepository = categoryRepository;
+        this.catalogWriteService = catalogWriteService;
+        this.idRegistryService = idRegistryService;
     }
 
     @GetMapping
@@ -118,7 +128,7 @@ public class ClassificationController {
                     log.debug("Found related Movie ID {} and Category ID {}.", c.getMovieId(), c.getCategoryId());
                     ClassificationResponseDTO dto = ClassificationResponseDTO.fromEntities(c, movieOpt.get(), categoryOpt.get());
                     log.info("<== Returning DTO: {}", dto);
-                    return ResponseEntity.ok(dto);
+                    return ResponseEntity.ok().eTag(VersionHeaders.eTag(c.getVersion())).body(dto);
                 } else {
                     log.error("!!! Missing relation for Classification ID {}! Movie found: {}, Category found: {}",
                             c.getClassificationId(), movieOpt.isPresent(), categoryOpt.isPresent());
@@ -156,14 +166,11 @@ public class ClassificationController {
                 return ResponseEntity.badRequest().body("Movie ID and Category ID must be positive integers.");
             }
 
-            Optional<Movie> movieOpt = movieRepository.findById(requestDTO.getMovieId());
-            Optional<Category> categoryOpt = categoryRepository.findById(requestDTO.getCategoryId());
-
-            if (movieOpt.isEmpty()) {
+            if (!idRegistryService.movieExists(requestDTO.getMovieId())) {
                 log.warn("!!! Invalid Movie ID: {}", requestDTO.getMovieId());
                 return ResponseEntity.badRequest().body("Invalid Movie ID provided.");
             }
-            if (categoryOpt.isEmpty()) {
+            if (!idRegistryService.categoryExists(requestDTO.getCategoryId())) {
                 log.warn("!!! Invalid Category ID: {}", requestDTO.getCategoryId());
                 return ResponseEntity.badRequest().body("Invalid Category ID provided.");
             }
@@ -180,21 +187,15 @@ public class ClassificationController {
             }
             log.info("No active conflict found, proceeding to create new classification.");
 
-            Classification newClassification = new Classification();
-            newClassification.setMovieId(requestDTO.getMovieId());
-            newClassification.setCategoryId(requestDTO.getCategoryId());
-            newClassification.setDate(LocalDate.now());
-            newClassification.setIsdeleted(false);
-
-            Classification savedClassification = classificationRepository.save(newClassification);
-            log.info("New classification saved with ID: {}", savedClassification.getClassificationId());
-
-            ClassificationResponseDTO response = ClassificationResponseDTO.fromEntities(
-                    savedClassification, movieOpt.get(), categoryOpt.get());
+            ClassificationResponseDTO response = catalogWriteService.createClassification(
+                    requestDTO.getMovieId(), requestDTO.getCategoryId());
+            log.info("New classification saved with ID: {}", response.getClassificationId());
             log.info("<== Returning created DTO: {}", response);
 
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(VersionHeaders.eTag(response.getVersion())).body(response);
 
+        } catch (MissingReferenceException | DataIntegrityViolationException e) {
+            return rejectedLink(requestDTO.getMovieId(), requestDTO.getCategoryId(), e);
         } catch (Exception e) {
             log.error("!!! General error in createClassification: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -203,18 +204,21 @@ public class ClassificationController {
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update an existing classification", description = "Updates the movie and category link for a given classification ID. Ensures the new combination doesn't conflict with other active classifications.")
+    @Operation(summary = "Update an existing classification", description = "Updates the movie and category link for a given classification ID. Ensures the new combination doesn't conflict with other active classifications. Send the ETag from a previous read as 'If-Match' to reject the update if the classification has changed since.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Classification updated successfully",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ClassificationResponseDTO.class))),
             @ApiResponse(responseCode = "400", description = "Invalid input: Movie ID or Category ID is invalid or missing", content = @Content),
             @ApiResponse(responseCode = "404", description = "Active classification not found with the given ID", content = @Content),
             @ApiResponse(responseCode = "409", description = "Conflict: The target movie/category combination already exists in another active classification", content = @Content),
+            @ApiResponse(responseCode = "412", description = "Classification was modified since the version given in If-Match, or concurrently with this update", content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error during classification update", content = @Content)
     })
     public ResponseEntity<?> updateClassification(
             @Parameter(description = "ID of the classification to update", required = true)
             @PathVariable int id,
+            @Parameter(description = "ETag of the classification version this update is based on")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Object containing the new movieId and categoryId.", required = true,
                     content = @Content(schema = @Schema(implementation = ClassificationRequestDTO.class)))
             @RequestBody ClassificationRequestDTO requestDTO) {
@@ -225,6 +229,11 @@ public class ClassificationController {
                 log.warn("!!! Invalid (zero or negative) Movie or Category ID received for update.");
                 return ResponseEntity.badRequest().body("Movie ID and Category ID must be positive integers.");
             }
+            List<Long> versions = VersionHeaders.parseIfMatch(ifMatch);
+            if (versions == null) {
+                log.warn("!!! Invalid If-Match header for classification ID {}: {}", id, ifMatch);
+                return ResponseEntity.badRequest().body("Invalid If-Match header.");
+            }
 
             Optional<Classification> classificationOpt = classificationRepository.findActiveById(id);
 
@@ -232,14 +241,17 @@ public class ClassificationController {
                 log.warn("!!! Update failed. Active Classification with ID {} not found.", id);
                 return ResponseEntity.notFound().build();
             }
+            if (!VersionHeaders.matches(versions, classificationOpt.get().getVersion())) {
+                log.warn("!!! Update failed. Classification ID {} is at version {}, If-Match requires one of {}.",
+                        id, classificationOpt.get().getVersion(), versions);
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
 
-            Optional<Movie> movieOpt = movieRepository.findById(requestDTO.getMovieId());
-            Optional<Category> categoryOpt = categoryRepository.findById(requestDTO.getCategoryId());
-            if (movieOpt.isEmpty()) {
+            if (!idRegistryService.movieExists(requestDTO.getMovieId())) {
                 log.warn("!!! Invalid Movie ID for update: {}", requestDTO.getMovieId());
                 return ResponseEntity.badRequest().body("Invalid Movie ID provided for update.");
             }
-            if (categoryOpt.isEmpty()) {
+            if (!idRegistryService.categoryExists(requestDTO.getCategoryId())) {
                 log.warn("!!! Invalid Category ID for update: {}", requestDTO.getCategoryId());
                 return ResponseEntity.badRequest().body("Invalid Category ID provided for update.");
             }
@@ -253,18 +265,20 @@ public class ClassificationController {
                         .body("The target movie/category combination is already assigned in another active classification.");
             }
 
-            Classification existingClassification = classificationOpt.get();
-            existingClassification.setMovieId(requestDTO.getMovieId());
-            existingClassification.setCategoryId(requestDTO.getCategoryId());
-
-            Classification updatedClassification = classificationRepository.save(existingClassification);
-            log.info("Classification updated successfully for ID: {}", updatedClassification.getClassificationId());
-
-            ClassificationResponseDTO response = ClassificationResponseDTO.fromEntities(
-                    updatedClassification, movieOpt.get(), categoryOpt.get());
+            // Guarded by the version just read, so a concurrent update or delete is not silently overwritten.
+            Optional<ClassificationResponseDTO> updatedOpt = catalogWriteService.updateClassification(
+                    classificationOpt.get(), requestDTO.getMovieId(), requestDTO.getCategoryId());
+            if (updatedOpt.isEmpty()) {
+                log.warn("!!! Update failed. Classification ID {} was modified concurrently.", id);
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+            ClassificationResponseDTO response = updatedOpt.get();
+            log.info("Classification updated successfully for ID: {}", response.getClassificationId());
             log.info("<== Returning updated DTO: {}", response);
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(VersionHeaders.eTag(response.getVersion())).body(response);
+        } catch (MissingReferenceException | DataIntegrityViolationException e) {
+            return rejectedLink(requestDTO.getMovieId(), requestDTO.getCategoryId(), e);
         } catch (Exception e) {
             log.error("!!! General error in updateClassification (ID: {}): {}", id, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -273,36 +287,65 @@ public class ClassificationController {
     }
 
     @DeleteMapping("/{id}")
-    @Operation(summary = "Delete a classification (Soft Delete)", description = "Marks the classification with the given ID as deleted.")
+    @Operation(summary = "Delete a classification (Soft Delete)", description = "Marks the classification with the given ID as deleted in a single guarded statement. Send the ETag from a previous read as 'If-Match' to delete only that version.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Classification marked as deleted successfully", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid If-Match header", content = @Content),
             @ApiResponse(responseCode = "404", description = "Classification not found with the given ID", content = @Content),
+            @ApiResponse(responseCode = "412", description = "Classification was modified since the version given in If-Match", content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error during classification deletion", content = @Content)
     })
     public ResponseEntity<Void> deleteClassification(
             @Parameter(description = "ID of the classification to delete (soft delete)", required = true)
-            @PathVariable int id) {
+            @PathVariable int id,
+            @Parameter(description = "ETag of the classification version to delete")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("==> DELETE /api/v1/classifications/{} called (soft delete).", id);
+        List<Long> versions = VersionHeaders.parseIfMatch(ifMatch);
+        if (versions == null) {
+            log.warn("!!! Invalid If-Match header for classification ID {}: {}", id, ifMatch);
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            Optional<Classification> optionalClassification = classificationRepository.findById(id);
-
-            if (optionalClassification.isPresent()) {
-                Classification classification = optionalClassification.get();
-                if (classification.isIsdeleted()) {
-                    log.info("Classification ID {} was already deleted.", id);
-                    return ResponseEntity.noContent().build();
-                }
-                classification.setIsdeleted(true);
-                classificationRepository.save(classification);
+            if (catalogWriteService.softDeleteClassification(id, versions).isPresent()) {
                 log.info("Classification ID {} marked as deleted (soft delete).", id);
                 return ResponseEntity.noContent().build();
-            } else {
+            }
+            Optional<Classification> optionalClassification = classificationRepository.findById(id);
+            if (optionalClassification.isEmpty()) {
                 log.warn("!!! Delete failed. Classification not found with ID: {}", id);
                 return ResponseEntity.notFound().build();
             }
+            if (optionalClassification.get().isIsdeleted()) {
+                log.info("Classification ID {} was already deleted.", id);
+                return ResponseEntity.noContent().build();
+            }
+            log.warn("!!! Delete failed. Classification ID {} no longer matches If-Match {}.", id, versions);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         } catch (Exception e) {
             log.error("!!! General error in deleteClassification (ID: {}): {}", id, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Answers a classification write that was rolled back because the movie or category was
+     * missing after all: the registry's cached ids are dropped and checked against the database
+     * again, so the client gets the same 400 it would have got before the write.
+     */
+    private ResponseEntity<?> rejectedLink(int movieId, int categoryId, RuntimeException e) {
+        idRegistryService.forgetMovie(movieId);
+        idRegistryService.forgetCategory(categoryId);
+        if (!idRegistryService.movieExists(movieId)) {
+            log.warn("!!! Movie ID {} no longer exists; classification write rolled back.", movieId);
+            return ResponseEntity.badRequest().body("Invalid Movie ID provided.");
+        }
+        if (!idRegistryService.categoryExists(categoryId)) {
+            log.warn("!!! Category ID {} no longer exists; classification write rolled back.", categoryId);
+            return ResponseEntity.badRequest().body("Invalid Category ID provided.");
+        }
+        log.warn("!!! Classification write for Movie ID {} / Category ID {} rolled back: {}", movieId, categoryId, e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("The movie/category combination conflicts with a concurrent change.");
+    }
+}
@@ -7,18 +7,26 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.kurgu.moviemanagement.DTOs.SimilarMovieDTO;
 import org.kurgu.moviemanagement.Models.Movie;
 import org.kurgu.moviemanagement.Repositories.MovieRepository;
 import org.kurgu.moviemanagement.Repositories.ClassificationRepository;
+import org.kurgu.moviemanagement.Services.CatalogWriteService;
+import org.kurgu.moviemanagement.Services.SimilarMovieService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/movies")
@@ -28,11 +36,16 @@ public class MovieController {
     private static final Logger log = LoggerFactory.getLogger(MovieController.class);
     private final MovieRepository movieRepository;
     private final ClassificationRepository classificationRepository;
+    private final CatalogWriteService catalogWriteService;
+    private final SimilarMovieService similarMovieService;
 
     @Autowired
-    public MovieController(MovieRepository movieRepository, ClassificationRepository classificationRepository) {
+    public MovieController(MovieRepository movieRepository, ClassificationRepository classificationRepository,
+                           CatalogWriteService catalogWriteService, SimilarMovieService similarMovieService) {
         this.movieRepository = movieRepository;
         this.classificationRepository = classificationRepository;
+        this.catalogWriteService = catalogWriteService;
+        this.similarMovieService = similarMovieService;
     }
 
     @GetMapping
@@ -56,13 +69,47 @@ public class MovieController {
         Optional<Movie> movie = movieRepository.findById(id);
         if (movie.isPresent()) {
             log.info("Movie found with ID: {}", id);
-            return ResponseEntity.ok(movie.get());
+            return ResponseEntity.ok().eTag(VersionHeaders.eTag(movie.get().getVersion())).body(movie.get());
         } else {
             log.warn("Movie not found with ID: {}", id);
             return ResponseEntity.notFound().build();
         }
     }
 
+    @GetMapping("/{id}/similar")
+    @Operation(summary = "Get similar movies", description = "Returns other movies ranked by a category-weighted Jaccard index over their shared active categories.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved similar movies",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = SimilarMovieDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Movie not found with the given ID", content = @Content)
+    })
+    public ResponseEntity<List<SimilarMovieDTO>> getSimilarMovies(
+            @Parameter(description = "ID of the movie to find similar movies for", required = true)
+            @PathVariable int id,
+            @Parameter(description = "Maximum number of similar movies to return")
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("GET /api/v1/movies/{}/similar called with limit={}", id, limit);
+        if (!movieRepository.existsById(id)) {
+            log.warn("Movie not found with ID: {}", id);
+            return ResponseEntity.notFound().build();
+        }
+        List<SimilarMovieService.ScoredMovie> scoredMovies = similarMovieService.findSimilar(id, Math.min(limit, 100));
+        Map<Integer, Movie> movies = movieRepository.findAllById(
+                        scoredMovies.stream().map(SimilarMovieService.ScoredMovie::movieId).toList())
+                .stream()
+                .collect(Collectors.toMap(Movie::getMovie_id, Function.identity()));
+
+        List<SimilarMovieDTO> response = new ArrayList<>();
+        for (SimilarMovieService.ScoredMovie scored : scoredMovies) {
+            Movie movie = movies.get(scored.movieId());
+            if (movie != null) {
+                response.add(new SimilarMovieDTO(movie, scored.score(), scored.sharedCategories()));
+            }
+        }
+        log.info("Returning {} similar movies for movie ID: {}", response.size(), id);
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping
     @Operation(summary = "Create a new movie", description = "Creates a new movie. The 'movie_id' in the request body is ignored.")
     @ApiResponses(value = {
@@ -76,10 +123,9 @@ public class MovieController {
             @RequestBody Movie movie) {
         log.info("POST /api/v1/movies called with body: {}", movie);
         try {
-            movie.setMovie_id(0);
-            Movie savedMovie = movieRepository.save(movie);
+            Movie savedMovie = catalogWriteService.createMovie(movie);
             log.info("Movie created successfully with ID: {}", savedMovie.getMovie_id());
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedMovie);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(VersionHeaders.eTag(savedMovie.getVersion())).body(savedMovie);
         } catch (Exception e) {
             log.error("Error creating movie: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -87,33 +133,39 @@ public class MovieController {
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update an existing movie", description = "Updates the movie with the given ID.")
+    @Operation(summary = "Update an existing movie", description = "Updates the movie with the given ID in a single statement. Send the ETag from a previous read as 'If-Match' to reject the update if the movie has changed since.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Movie updated successfully",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = Movie.class))),
-            @ApiResponse(responseCode = "404", description = "Movie not found with the given ID", content = @Content)
+            @ApiResponse(responseCode = "400", description = "Invalid If-Match header", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Movie not found with the given ID", content = @Content),
+            @ApiResponse(responseCode = "412", description = "Movie was modified since the version given in If-Match", content = @Content)
     })
     public ResponseEntity<Movie> updateMovie(
             @Parameter(description = "ID of the movie to update", required = true)
             @PathVariable int id,
+            @Parameter(description = "ETag of the movie version this update is based on")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Updated movie object.", required = true,
                     content = @Content(schema = @Schema(implementation = Movie.class)))
             @RequestBody Movie movieDetails) {
         log.info("PUT /api/v1/movies/{} called with body: {}", id, movieDetails);
-        Optional<Movie> optionalMovie = movieRepository.findById(id);
-        if (optionalMovie.isPresent()) {
-            Movie existingMovie = optionalMovie.get();
-            if (movieDetails.getTitle() != null) {
-                existingMovie.setTitle(movieDetails.getTitle());
-            }
-            if (movieDetails.getDirector() != null) {
-                existingMovie.setDirector(movieDetails.getDirector());
-            }
-            existingMovie.setYear(movieDetails.getYear());
-
-            Movie updatedMovie = movieRepository.save(existingMovie);
+        List<Long> versions = VersionHeaders.parseIfMatch(ifMatch);
+        if (versions == null) {
+            log.warn("Invalid If-Match header for movie ID {}: {}", id, ifMatch);
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<MovieRepository.UpdateResult> result = catalogWriteService.updateMovie(
+                id, movieDetails.getTitle(), movieDetails.getDirector(), movieDetails.getYear(), versions);
+        if (result.isPresent()) {
+            MovieRepository.UpdateResult updated = result.get();
+            Movie updatedMovie = new Movie(updated.getMovieId(), updated.getTitle(), updated.getDirector(),
+                    updated.getYear(), updated.getVersion());
             log.info("Movie updated successfully for ID: {}", id);
-            return ResponseEntity.ok(updatedMovie);
+            return ResponseEntity.ok().eTag(VersionHeaders.eTag(updatedMovie.getVersion())).body(updatedMovie);
+        } else if (!VersionHeaders.isUnconditional(versions) && movieRepository.existsById(id)) {
+            log.warn("Update failed. Movie ID {} no longer matches If-Match {}.", id, versions);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         } else {
             log.warn("Update failed. Movie not found with ID: {}", id);
             return ResponseEntity.notFound().build();
@@ -121,34 +173,43 @@ public class MovieController {
     }
 
     @DeleteMapping("/{id}")
-    @Operation(summary = "Delete a movie", description = "Deletes the movie with the given ID.")
+    @Operation(summary = "Delete a movie", description = "Deletes the movie with the given ID in a single guarded statement. Send the ETag from a previous read as 'If-Match' to delete only that version.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Movie deleted successfully", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid If-Match header", content = @Content),
             @ApiResponse(responseCode = "404", description = "Movie not found with the given ID", content = @Content),
-            @ApiResponse(responseCode = "409", description = "Conflict, movie cannot be deleted (e.g., due to existing classifications)", content = @Content)
+            @ApiResponse(responseCode = "409", description = "Conflict, movie cannot be deleted (e.g., due to existing classifications)", content = @Content),
+            @ApiResponse(responseCode = "412", description = "Movie was modified since the version given in If-Match", content = @Content)
     })
     public ResponseEntity<Void> deleteMovie(
             @Parameter(description = "ID of the movie to delete", required = true)
-            @PathVariable int id) {
+            @PathVariable int id,
+            @Parameter(description = "ETag of the movie version to delete")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("DELETE /api/v1/movies/{} called", id);
-        if (movieRepository.existsById(id)) {
-            try {
-                boolean hasClassifications = classificationRepository.existsByMovieId(id);
-                if (hasClassifications) {
-                    log.warn("Conflict deleting movie ID {}: It has existing classifications.", id);
-                    return ResponseEntity.status(HttpStatus.CONFLICT).build();
-                }
-
-                movieRepository.deleteById(id);
+        List<Long> versions = VersionHeaders.parseIfMatch(ifMatch);
+        if (versions == null) {
+            log.warn("Invalid If-Match header for movie ID {}: {}", id, ifMatch);
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            if (catalogWriteService.deleteMovie(id, versions).isPresent()) {
                 log.info("Movie deleted successfully with ID: {}", id);
                 return ResponseEntity.noContent().build();
-            } catch (Exception e) { // Örneğin: DataIntegrityViolationException
-                log.error("Error deleting movie ID {}: {}", id, e.getMessage(), e);
+            }
+            if (!movieRepository.existsById(id)) {
+                log.warn("Delete failed. Movie not found with ID: {}", id);
+                return ResponseEntity.notFound().build();
+            }
+            if (classificationRepository.existsByMovieId(id)) {
+                log.warn("Conflict deleting movie ID {}: It has existing classifications.", id);
                 return ResponseEntity.status(HttpStatus.CONFLICT).build();
             }
-        } else {
-            log.warn("Delete failed. Movie not found with ID: {}", id);
-            return ResponseEntity.notFound().build();
+            log.warn("Delete failed. Movie ID {} no longer matches If-Match {}.", id, versions);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (Exception e) { // Örneğin: DataIntegrityViolationException
+            log.error("Error deleting movie ID {}: {}", id, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package org.kurgu.moviemanagement.Controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.kurgu.moviemanagement.Services.CatalogStatisticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/statistics")
+@Tag(name = "Catalog Statistics", description = "APIs for reading incrementally maintained catalog counters")
+public class StatisticsController {
+
+    private static final Logger log = LoggerFactory.getLogger(StatisticsController.class);
+    private final CatalogStatisticsService catalogStatisticsService;
+
+    @Autowired
+    public StatisticsController(CatalogStatisticsService catalogStatisticsService) {
+        this.catalogStatisticsService = catalogStatisticsService;
+    }
+
+    @GetMapping("/categories")
+    @Operation(summary = "Get active movies per category", description = "Returns the number of active classifications for each category ID.")
+    public Map<Integer, Long> getActiveClassificationsByCategory() {
+        log.info("GET /api/v1/statistics/categories called");
+        return catalogStatisticsService.getActiveClassificationsByCategory();
+    }
+
+    @GetMapping("/categories/{categoryId}")
+    @Operation(summary = "Get active movies for a category", description = "Returns the number of active classifications for the given category ID.")
+    public long getActiveClassificationCount(
+            @Parameter(description = "ID of the category", required = true)
+            @PathVariable int categoryId) {
+        log.info("GET /api/v1/statistics/categories/{} called", categoryId);
+        return catalogStatisticsService.getActiveClassificationCount(categoryId);
+    }
+
+    @GetMapping("/years")
+    @Operation(summary = "Get movies per year", description = "Returns the number of movies for each release year.")
+    public Map<Integer, Long> getMoviesByYear() {
+        log.info("GET /api/v1/statistics/years called");
+        return catalogStatisticsService.getMoviesByYear();
+    }
+
+    @GetMapping("/years/{year}")
+    @Operation(summary = "Get movies for a year", description = "Returns the number of movies released in the given year.")
+    public long getMovieCount(
+            @Parameter(description = "Release year", required = true)
+            @PathVariable int year) {
+        log.info("GET /api/v1/statistics/years/{} called", year);
+        return catalogStatisticsService.getMovieCount(year);
+    }
+
+    @GetMapping("/days")
+    @Operation(summary = "Get classifications added per day", description = "Returns the number of classifications added on each date.")
+    public Map<LocalDate, Long> getClassificationsByDate() {
+        log.info("GET /api/v1/statistics/days called");
+        return catalogStatisticsService.getClassificationsByDate();
+    }
+
+    @GetMapping("/days/{date}")
+    @Operation(summary = "Get classifications added on a day", description = "Returns the number of classifications added on the given date (yyyy-MM-dd).")
+    public long getClassificationCount(
+            @Parameter(description = "Date in ISO format (yyyy-MM-dd)", required = true)
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        log.info("GET /api/v1/statistics/days/{} called", date);
+        return catalogStatisticsService.getClassificationCount(date);
+    }
+}
@@ -0,0 +1,97 @@
+package org.kurgu.moviemanagement.Controllers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps entity versions to and from ETag / If-Match header values.
+ */
+final class VersionHeaders {
+
+    /**
+     * Stands for "any version" when the request has no If-Match precondition. The guarded write
+     * statements take the accepted versions as a list and match every row version when that list
+     * contains this value, so an unconditional write stays a single statement.
+     */
+    static final long ANY_VERSION = -1;
+
+    /**
+     * Stands for "no version" when every ETag in If-Match is weak or was not issued by this API.
+     * Row versions are never negative, so the guarded writes match nothing and answer 412.
+     */
+    static final long NO_VERSION = -2;
+
+    private static final List<Long> ANY = List.of(ANY_VERSION);
+    private static final List<Long> NONE = List.of(NO_VERSION);
+
+    private VersionHeaders() {
+    }
+
+    /**
+     * Returns the versions accepted by an If-Match header: {@code [ANY_VERSION]} when the header is
+     * absent or "*", otherwise the versions of the strong ETags in its list. Weak and foreign
+     * ETags never match under strong comparison, so they are skipped, and {@code [NO_VERSION]} is
+     * returned if nothing else is left. Returns null only when the header cannot be parsed.
+     */
+    static List<Long> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return ANY;
+        }
+        List<Long> versions = new ArrayList<>();
+        boolean tagSeen = false;
+        int position = 0;
+        int length = ifMatch.length();
+        while (position < length) {
+            char next = ifMatch.charAt(position);
+            if (next == ',' || next == ' ' || next == '\t') {
+                position++;
+                continue;
+            }
+            boolean weak = ifMatch.startsWith("W/", position);
+            int open = weak ? position + 2 : position;
+            int close = open < length && ifMatch.charAt(open) == '"' ? ifMatch.indexOf('"', open + 1) : -1;
+            if (close < 0) {
+                return null;
+            }
+            position = close + 1;
+            while (position < length && (ifMatch.charAt(position) == ' ' || ifMatch.charAt(position) == '\t')) {
+                position++;
+            }
+            if (position < length && ifMatch.charAt(position) != ',') {
+                return null;
+            }
+            tagSeen = true;
+            Long version = weak ? null : issuedVersion(ifMatch.substring(open + 1, close));
+            if (version != null) {
+                versions.add(version);
+            }
+        }
+        if (!tagSeen) {
+            return null;
+        }
+        return versions.isEmpty() ? NONE : List.copyOf(versions);
+    }
+
+    private static Long issuedVersion(String opaqueTag) {
+        if (opaqueTag.isEmpty() || !opaqueTag.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(opaqueTag);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static boolean isUnconditional(List<Long> versions) {
+        return versions.contains(ANY_VERSION);
+    }
+
+    static boolean matches(List<Long> versions, long version) {
+        return isUnconditional(versions) || versions.contains(version);
+    }
+
+    static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+}
@@ -0,0 +1,30 @@
+package org.kurgu.moviemanagement.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.kurgu.moviemanagement.Services.AdaptiveLimiter;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdmissionMetricsDTO {
+
+    private String endpoint;
+    private int limit;
+    private int inFlight;
+    private long admitted;
+    private long shed;
+    private double smoothedLatencyMs;
+
+    public static AdmissionMetricsDTO fromLimiter(AdaptiveLimiter limiter) {
+        return new AdmissionMetricsDTO(
+                limiter.getEndpoint(),
+                limiter.getLimit(),
+                limiter.getInFlight(),
+                limiter.getAdmitted(),
+                limiter.getShed(),
+                limiter.getSmoothedLatencyMs()
+        );
+    }
+}
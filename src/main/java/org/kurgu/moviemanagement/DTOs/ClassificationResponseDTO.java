@@ -16,13 +16,15 @@ public class ClassificationResponseDTO {
     private Movie movie;
     private Category category;
     private LocalDate date;
+    private long version;
 
     public static ClassificationResponseDTO fromEntities(Classification classification, Movie movie, Category category) {
         return new ClassificationResponseDTO(
                 classification.getClassificationId(),
                 movie,
                 category,
-                classification.getDate()
+                classification.getDate(),
+                classification.getVersion()
         );
     }
 }
\ No newline at end of file
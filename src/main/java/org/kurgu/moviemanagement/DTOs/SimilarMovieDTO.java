@@ -0,0 +1,15 @@
+package org.kurgu.moviemanagement.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.kurgu.moviemanagement.Models.Movie;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarMovieDTO {
+    private Movie movie;
+    private double score;
+    private int sharedCategories;
+}
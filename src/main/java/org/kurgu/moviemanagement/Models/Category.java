@@ -4,6 +4,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import lombok.*;
 
 @Setter
@@ -20,4 +21,7 @@ public class Category {
 
     public String name;
 
+    @Version
+    public long version;
+
 }
@@ -0,0 +1,33 @@
+package org.kurgu.moviemanagement.Models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Entity(name = "change_log")
+public class ChangeLogEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "sequence")
+    private long sequence;
+
+    @Column(name = "entity_type")
+    private String entityType;
+
+    @Column(name = "entity_id")
+    private int entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation")
+    private ChangeOperation operation;
+
+    @Column(name = "changed_at")
+    private Instant changedAt = Instant.now();
+}
@@ -0,0 +1,7 @@
+package org.kurgu.moviemanagement.Models;
+
+public enum ChangeOperation {
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -28,4 +28,8 @@ public class Classification {
 
     @Column(name ="isdeleted")
     private boolean isdeleted = false;
+
+    @Version
+    @Column(name = "version")
+    private long version;
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import lombok.*;
 
 @Setter
@@ -25,4 +26,7 @@ public class Movie {
 
     private int year;
 
+    @Version
+    private long version;
+
 }
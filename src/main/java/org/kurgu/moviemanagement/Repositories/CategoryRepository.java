@@ -2,7 +2,28 @@ package org.kurgu.moviemanagement.Repositories;
 
 import org.kurgu.moviemanagement.Models.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
 
 
 public interface CategoryRepository extends JpaRepository<Category, Integer> {
+
+    @Query("SELECT c.category_id FROM category c")
+    List<Integer> findAllIds();
+
+    @Transactional
+    @Query(value = "UPDATE category SET name = :name, version = version + 1 " +
+            "WHERE category_id = :id AND (-1 IN (:versions) OR version IN (:versions)) RETURNING *",
+            nativeQuery = true)
+    Optional<Category> updateNameIfVersion(@Param("id") int id, @Param("name") String name, @Param("versions") List<Long> versions);
+
+    @Transactional
+    @Query(value = "DELETE FROM category cat WHERE cat.category_id = :id AND (-1 IN (:versions) OR cat.version IN (:versions)) " +
+            "AND NOT EXISTS (SELECT 1 FROM classification c WHERE c.category_id = cat.category_id) RETURNING cat.*",
+            nativeQuery = true)
+    Optional<Category> deleteUnclassifiedIfVersion(@Param("id") int id, @Param("versions") List<Long> versions);
 }
@@ -0,0 +1,21 @@
+package org.kurgu.moviemanagement.Repositories;
+
+import org.kurgu.moviemanagement.Models.ChangeLogEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    List<ChangeLogEntry> findBySequenceGreaterThanOrderBySequenceAsc(long sequence, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(c.sequence), 0) FROM change_log c")
+    long findLastSequence();
+
+    // Held until the surrounding transaction ends, across every instance sharing the database.
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:key)", nativeQuery = true)
+    Integer acquireTransactionLock(@Param("key") long key);
+}
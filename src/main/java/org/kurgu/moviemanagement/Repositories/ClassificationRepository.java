@@ -2,8 +2,10 @@ package org.kurgu.moviemanagement.Repositories;
 
 import org.kurgu.moviemanagement.Models.Classification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -20,4 +22,26 @@ public interface ClassificationRepository extends JpaRepository<Classification,
     boolean existsByMovieId(int movieId);
 
     boolean existsByCategoryId(int categoryId);
+
+    @Query("SELECT c.categoryId, COUNT(c) FROM classification c WHERE c.isdeleted = false GROUP BY c.categoryId")
+    List<Object[]> countActiveGroupByCategoryId();
+
+    @Query("SELECT c.date, COUNT(c) FROM classification c GROUP BY c.date")
+    List<Object[]> countGroupByDate();
+
+    @Query("SELECT c.movieId, c.categoryId FROM classification c WHERE c.isdeleted = false")
+    List<Object[]> findActiveMovieCategoryPairs();
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE classification c SET c.movieId = :movieId, c.categoryId = :categoryId, c.version = c.version + 1 " +
+            "WHERE c.classificationId = :id AND c.isdeleted = false AND c.version = :version")
+    int updateLinkIfVersion(@Param("id") int classificationId, @Param("movieId") int movieId,
+                            @Param("categoryId") int categoryId, @Param("version") long version);
+
+    @Transactional
+    @Query(value = "UPDATE classification SET isdeleted = true, version = version + 1 " +
+            "WHERE classification_id = :id AND isdeleted = false AND (-1 IN (:versions) OR version IN (:versions)) RETURNING *",
+            nativeQuery = true)
+    Optional<Classification> softDeleteIfVersion(@Param("id") int classificationId, @Param("versions") List<Long> versions);
 }
\ No newline at end of file
@@ -2,9 +2,52 @@ package org.kurgu.moviemanagement.Repositories;
 
 import org.kurgu.moviemanagement.Models.Movie;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-
+import java.util.List;
 import java.util.Optional;
 
 public interface MovieRepository extends JpaRepository<Movie, Integer> {
+
+    @Query("SELECT m.movie_id FROM movie m")
+    List<Integer> findAllIds();
+
+    @Query("SELECT m.year, COUNT(m) FROM movie m GROUP BY m.year")
+    List<Object[]> countGroupByYear();
+
+    @Transactional
+    // The locking CTE waits for concurrent writers, so "previous" is the row this update replaces.
+    @Query(value = "WITH previous AS (SELECT movie_id, year FROM movie WHERE movie_id = :id FOR UPDATE) " +
+            "UPDATE movie m SET title = COALESCE(CAST(:title AS VARCHAR), m.title), " +
+            "director = COALESCE(CAST(:director AS VARCHAR), m.director), year = :year, version = m.version + 1 " +
+            "FROM previous WHERE m.movie_id = previous.movie_id " +
+            "AND (-1 IN (:versions) OR m.version IN (:versions)) " +
+            "RETURNING m.movie_id AS \"movieId\", m.title AS \"title\", m.director AS \"director\", " +
+            "m.year AS \"year\", m.version AS \"version\", previous.year AS \"previousYear\"",
+            nativeQuery = true)
+    Optional<UpdateResult> updateIfVersion(@Param("id") int id, @Param("title") String title,
+                                           @Param("director") String director, @Param("year") int year,
+                                           @Param("versions") List<Long> versions);
+
+    @Transactional
+    @Query(value = "DELETE FROM movie m WHERE m.movie_id = :id AND (-1 IN (:versions) OR m.version IN (:versions)) " +
+            "AND NOT EXISTS (SELECT 1 FROM classification c WHERE c.movie_id = m.movie_id) RETURNING m.*",
+            nativeQuery = true)
+    Optional<Movie> deleteUnclassifiedIfVersion(@Param("id") int id, @Param("versions") List<Long> versions);
+
+    interface UpdateResult {
+        Integer getMovieId();
+
+        String getTitle();
+
+        String getDirector();
+
+        Integer getYear();
+
+        Long getVersion();
+
+        Integer getPreviousYear();
+    }
 }
@@ -0,0 +1,109 @@
+package org.kurgu.moviemanagement.Services;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit for a single endpoint. The limit grows by one while smoothed latency
+ * stays under the target and the endpoint is running at capacity, and shrinks by ten percent
+ * when smoothed latency exceeds the target (additive increase, multiplicative decrease).
+ * <p>
+ * The limit shrinks at most once per window of the larger of the target and the smoothed
+ * latency, so the requests already in flight when it shrank do not shrink it again. Failed
+ * requests are left out of the latency signal, since error responses are often much faster
+ * or slower than real work.
+ */
+public class AdaptiveLimiter {
+
+    private static final double SMOOTHING = 0.2;
+
+    private final String endpoint;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final LongSupplier clock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private volatile int limit;
+    private double smoothedLatencyNanos;
+    private long nextDecreaseNanos;
+
+    public AdaptiveLimiter(String endpoint, int initialLimit, int minLimit, int maxLimit, long targetLatencyMs) {
+        this(endpoint, initialLimit, minLimit, maxLimit, targetLatencyMs, System::nanoTime);
+    }
+
+    AdaptiveLimiter(String endpoint, int initialLimit, int minLimit, int maxLimit, long targetLatencyMs,
+                    LongSupplier clock) {
+        this.endpoint = endpoint;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMs);
+        this.clock = clock;
+        this.nextDecreaseNanos = clock.getAsLong();
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                shed.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                admitted.increment();
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos, boolean succeeded) {
+        int concurrent = inFlight.getAndDecrement();
+        if (succeeded) {
+            adjust(latencyNanos, concurrent);
+        }
+    }
+
+    private synchronized void adjust(long latencyNanos, int concurrent) {
+        smoothedLatencyNanos = smoothedLatencyNanos == 0
+                ? latencyNanos
+                : smoothedLatencyNanos + SMOOTHING * (latencyNanos - smoothedLatencyNanos);
+        if (smoothedLatencyNanos > targetLatencyNanos) {
+            long now = clock.getAsLong();
+            if (now - nextDecreaseNanos >= 0) {
+                limit = Math.max(minLimit, (int) (limit * 0.9));
+                nextDecreaseNanos = now + (long) Math.max(targetLatencyNanos, smoothedLatencyNanos);
+            }
+        } else if (concurrent >= limit && limit < maxLimit) {
+            limit = limit + 1;
+        }
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    public long getShed() {
+        return shed.sum();
+    }
+
+    public synchronized double getSmoothedLatencyMs() {
+        return smoothedLatencyNanos / 1_000_000.0;
+    }
+}
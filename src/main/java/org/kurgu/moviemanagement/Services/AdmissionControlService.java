@@ -0,0 +1,45 @@
+package org.kurgu.moviemanagement.Services;
+
+import org.kurgu.moviemanagement.Config.AdmissionControlProperties;
+import org.kurgu.moviemanagement.DTOs.AdmissionMetricsDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class AdmissionControlService {
+
+    private final AdmissionControlProperties properties;
+    private final ConcurrentHashMap<String, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AdmissionControlService(AdmissionControlProperties properties) {
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public int getRetryAfterSeconds() {
+        return properties.getRetryAfterSeconds();
+    }
+
+    public AdaptiveLimiter limiterFor(String endpoint) {
+        return limiters.computeIfAbsent(endpoint, key -> {
+            AdmissionControlProperties.Limit limit = properties.limitFor(key);
+            return new AdaptiveLimiter(key, limit.getInitialLimit(), limit.getMinLimit(),
+                    limit.getMaxLimit(), limit.getTargetLatencyMs());
+        });
+    }
+
+    public List<AdmissionMetricsDTO> getMetrics() {
+        return limiters.values().stream()
+                .sorted(Comparator.comparing(AdaptiveLimiter::getEndpoint))
+                .map(AdmissionMetricsDTO::fromLimiter)
+                .toList();
+    }
+}
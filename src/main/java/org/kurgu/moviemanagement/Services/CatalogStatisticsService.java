@@ -0,0 +1,227 @@
+package org.kurgu.moviemanagement.Services;
+
+import org.kurgu.moviemanagement.Repositories.ChangeLogRepository;
+import org.kurgu.moviemanagement.Repositories.ClassificationRepository;
+import org.kurgu.moviemanagement.Repositories.MovieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Keeps catalog counters in memory so statistics reads never scan tables.
+ * <p>
+ * Write paths apply deltas after commit, tagged with the change log sequence of the write.
+ * {@link #reconcile()} reads the aggregates and the last change log sequence from one
+ * database snapshot. Deltas applied while it runs are journaled, and those with a sequence
+ * after the snapshot are replayed onto the rebuilt counters before they replace the live ones.
+ * Because change log sequences become visible in commit order, a write is in the snapshot
+ * exactly when its sequence is not after the snapshot's last sequence. That sequence is kept
+ * as the counters' watermark, so a delta whose after-commit callback only runs once the
+ * reconciled counters are live is dropped instead of being counted twice.
+ */
+@Service
+public class CatalogStatisticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogStatisticsService.class);
+
+    private final MovieRepository movieRepository;
+    private final ClassificationRepository classificationRepository;
+    private final ChangeLogRepository changeLogRepository;
+    private final TransactionTemplate snapshotTransaction;
+
+    // Deltas hold the read lock; swapping in reconciled counters takes the write lock.
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Counters counters = new Counters();
+    private long appliedThrough;
+    private volatile Queue<Delta> journal;
+
+    @Autowired
+    public CatalogStatisticsService(MovieRepository movieRepository,
+                                    ClassificationRepository classificationRepository,
+                                    ChangeLogRepository changeLogRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.movieRepository = movieRepository;
+        this.classificationRepository = classificationRepository;
+        this.changeLogRepository = changeLogRepository;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+    }
+
+    public void movieCreated(long sequence, int year) {
+        apply(sequence, c -> increment(c.moviesByYear, year, 1));
+    }
+
+    public void movieYearChanged(long sequence, int oldYear, int newYear) {
+        if (oldYear != newYear) {
+            apply(sequence, c -> {
+                increment(c.moviesByYear, oldYear, -1);
+                increment(c.moviesByYear, newYear, 1);
+            });
+        }
+    }
+
+    public void movieDeleted(long sequence, int year) {
+        apply(sequence, c -> increment(c.moviesByYear, year, -1));
+    }
+
+    public void classificationCreated(long sequence, int categoryId, LocalDate date) {
+        apply(sequence, c -> {
+            increment(c.activeClassificationsByCategory, categoryId, 1);
+            if (date != null) {
+                increment(c.classificationsByDate, date, 1);
+            }
+        });
+    }
+
+    public void classificationCategoryChanged(long sequence, int oldCategoryId, int newCategoryId) {
+        if (oldCategoryId != newCategoryId) {
+            apply(sequence, c -> {
+                increment(c.activeClassificationsByCategory, oldCategoryId, -1);
+                increment(c.activeClassificationsByCategory, newCategoryId, 1);
+            });
+        }
+    }
+
+    public void classificationDeleted(long sequence, int categoryId) {
+        apply(sequence, c -> increment(c.activeClassificationsByCategory, categoryId, -1));
+    }
+
+    public long getActiveClassificationCount(int categoryId) {
+        return get(counters.activeClassificationsByCategory, categoryId);
+    }
+
+    public long getMovieCount(int year) {
+        return get(counters.moviesByYear, year);
+    }
+
+    public long getClassificationCount(LocalDate date) {
+        return get(counters.classificationsByDate, date);
+    }
+
+    public Map<Integer, Long> getActiveClassificationsByCategory() {
+        return snapshot(counters.activeClassificationsByCategory);
+    }
+
+    public Map<Integer, Long> getMoviesByYear() {
+        return snapshot(counters.moviesByYear);
+    }
+
+    public Map<LocalDate, Long> getClassificationsByDate() {
+        return snapshot(counters.classificationsByDate);
+    }
+
+    @Scheduled(fixedDelayString = "${moviemanagement.statistics.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        log.info("Reconciling catalog statistics against the database.");
+        Queue<Delta> pending = new ConcurrentLinkedQueue<>();
+        journal = pending;
+        try {
+            Snapshot snapshot = snapshotTransaction.execute(status -> readSnapshot());
+            int replayed = 0;
+            lock.writeLock().lock();
+            try {
+                for (Delta delta : pending) {
+                    if (delta.sequence() > snapshot.lastSequence()) {
+                        delta.change().accept(snapshot.counters());
+                        replayed++;
+                    }
+                }
+                counters = snapshot.counters();
+                appliedThrough = snapshot.lastSequence();
+                journal = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Catalog statistics reconciled at sequence {} ({} later deltas replayed): {} categories, {} years, {} dates.",
+                    snapshot.lastSequence(), replayed, snapshot.counters().activeClassificationsByCategory.size(),
+                    snapshot.counters().moviesByYear.size(), snapshot.counters().classificationsByDate.size());
+        } catch (Exception e) {
+            log.error("Error reconciling catalog statistics: {}", e.getMessage(), e);
+        } finally {
+            journal = null;
+        }
+    }
+
+    private Snapshot readSnapshot() {
+        // Under REPEATABLE READ every query below sees the snapshot taken by the first one.
+        long lastSequence = changeLogRepository.findLastSequence();
+        Counters rebuilt = new Counters();
+        for (Object[] row : classificationRepository.countActiveGroupByCategoryId()) {
+            rebuilt.activeClassificationsByCategory.put((Integer) row[0], new AtomicLong((Long) row[1]));
+        }
+        for (Object[] row : movieRepository.countGroupByYear()) {
+            rebuilt.moviesByYear.put((Integer) row[0], new AtomicLong((Long) row[1]));
+        }
+        for (Object[] row : classificationRepository.countGroupByDate()) {
+            if (row[0] != null) {
+                rebuilt.classificationsByDate.put((LocalDate) row[0], new AtomicLong((Long) row[1]));
+            }
+        }
+        return new Snapshot(lastSequence, rebuilt);
+    }
+
+    private void apply(long sequence, Consumer<Counters> change) {
+        lock.readLock().lock();
+        try {
+            if (sequence <= appliedThrough) {
+                return;
+            }
+            change.accept(counters);
+            Queue<Delta> pending = journal;
+            if (pending != null) {
+                pending.add(new Delta(sequence, change));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static <K> void increment(ConcurrentHashMap<K, AtomicLong> counters, K key, long delta) {
+        counters.computeIfAbsent(key, k -> new AtomicLong()).addAndGet(delta);
+    }
+
+    private static <K> long get(ConcurrentHashMap<K, AtomicLong> counters, K key) {
+        AtomicLong counter = counters.get(key);
+        return counter == null ? 0 : counter.get();
+    }
+
+    private static <K> Map<K, Long> snapshot(ConcurrentHashMap<K, AtomicLong> counters) {
+        Map<K, Long> result = new TreeMap<>();
+        counters.forEach((key, counter) -> {
+            long value = counter.get();
+            if (value != 0) {
+                result.put(key, value);
+            }
+        });
+        return result;
+    }
+
+    private static final class Counters {
+        private final ConcurrentHashMap<Integer, AtomicLong> activeClassificationsByCategory = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Integer, AtomicLong> moviesByYear = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<LocalDate, AtomicLong> classificationsByDate = new ConcurrentHashMap<>();
+    }
+
+    private record Delta(long sequence, Consumer<Counters> change) {
+    }
+
+    private record Snapshot(long lastSequence, Counters counters) {
+    }
+}
@@ -0,0 +1,194 @@
+package org.kurgu.moviemanagement.Services;
+
+import org.kurgu.moviemanagement.DTOs.ClassificationResponseDTO;
+import org.kurgu.moviemanagement.Models.Category;
+import org.kurgu.moviemanagement.Models.ChangeOperation;
+import org.kurgu.moviemanagement.Models.Classification;
+import org.kurgu.moviemanagement.Models.Movie;
+import org.kurgu.moviemanagement.Repositories.CategoryRepository;
+import org.kurgu.moviemanagement.Repositories.ClassificationRepository;
+import org.kurgu.moviemanagement.Repositories.MovieRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Catalog writes. Each method writes the entity and appends its change log entry in one
+ * transaction, so a committed change is always in the feed. In-memory views (statistics,
+ * similarity index, id registry) are only updated after the transaction commits.
+ */
+@Service
+public class CatalogWriteService {
+
+    private final MovieRepository movieRepository;
+    private final CategoryRepository categoryRepository;
+    private final ClassificationRepository classificationRepository;
+    private final ChangeFeedService changeFeedService;
+    private final CatalogStatisticsService catalogStatisticsService;
+    private final SimilarMovieService similarMovieService;
+    private final IdRegistryService idRegistryService;
+
+    @Autowired
+    public CatalogWriteService(MovieRepository movieRepository,
+                               CategoryRepository categoryRepository,
+                               ClassificationRepository classificationRepository,
+                               ChangeFeedService changeFeedService,
+                               CatalogStatisticsService catalogStatisticsService,
+                               SimilarMovieService similarMovieService,
+                               IdRegistryService idRegistryService) {
+        this.movieRepository = movieRepository;
+        this.categoryRepository = categoryRepository;
+        this.classificationRepository = classificationRepository;
+        this.changeFeedService = changeFeedService;
+        this.catalogStatisticsService = catalogStatisticsService;
+        this.similarMovieService = similarMovieService;
+        this.idRegistryService = idRegistryService;
+    }
+
+    @Transactional
+    public Movie createMovie(Movie movie) {
+        movie.setMovie_id(0);
+        movie.setVersion(0);
+        Movie savedMovie = movieRepository.save(movie);
+        long sequence = changeFeedService.record(ChangeFeedService.MOVIE, savedMovie.getMovie_id(), ChangeOperation.CREATE).getSequence();
+        afterCommit(() -> {
+            catalogStatisticsService.movieCreated(sequence, savedMovie.getYear());
+            idRegistryService.movieCreated(savedMovie.getMovie_id());
+        });
+        return savedMovie;
+    }
+
+    @Transactional
+    public Optional<MovieRepository.UpdateResult> updateMovie(int id, String title, String director, int year, List<Long> versions) {
+        Optional<MovieRepository.UpdateResult> result = movieRepository.updateIfVersion(id, title, director, year, versions);
+        result.ifPresent(updated -> {
+            long sequence = changeFeedService.record(ChangeFeedService.MOVIE, id, ChangeOperation.UPDATE).getSequence();
+            afterCommit(() -> catalogStatisticsService.movieYearChanged(sequence, updated.getPreviousYear(), updated.getYear()));
+        });
+        return result;
+    }
+
+    @Transactional
+    public Optional<Movie> deleteMovie(int id, List<Long> versions) {
+        Optional<Movie> deletedMovie = movieRepository.deleteUnclassifiedIfVersion(id, versions);
+        deletedMovie.ifPresent(movie -> {
+            long sequence = changeFeedService.record(ChangeFeedService.MOVIE, id, ChangeOperation.DELETE).getSequence();
+            afterCommit(() -> {
+                catalogStatisticsService.movieDeleted(sequence, movie.getYear());
+                idRegistryService.movieDeleted(id);
+            });
+        });
+        return deletedMovie;
+    }
+
+    @Transactional
+    public Category createCategory(Category category) {
+        category.setCategory_id(0);
+        category.setVersion(0);
+        Category savedCategory = categoryRepository.save(category);
+        changeFeedService.record(ChangeFeedService.CATEGORY, savedCategory.getCategory_id(), ChangeOperation.CREATE);
+        afterCommit(() -> idRegistryService.categoryCreated(savedCategory.getCategory_id()));
+        return savedCategory;
+    }
+
+    @Transactional
+    public Optional<Category> updateCategory(int id, String name, List<Long> versions) {
+        Optional<Category> updatedCategory = categoryRepository.updateNameIfVersion(id, name, versions);
+        updatedCategory.ifPresent(category -> changeFeedService.record(ChangeFeedService.CATEGORY, id, ChangeOperation.UPDATE));
+        return updatedCategory;
+    }
+
+    @Transactional
+    public Optional<Category> deleteCategory(int id, List<Long> versions) {
+        Optional<Category> deletedCategory = categoryRepository.deleteUnclassifiedIfVersion(id, versions);
+        deletedCategory.ifPresent(category -> {
+            changeFeedService.record(ChangeFeedService.CATEGORY, id, ChangeOperation.DELETE);
+            afterCommit(() -> idRegistryService.categoryDeleted(id));
+        });
+        return deletedCategory;
+    }
+
+    /**
+     * Links a movie to a category and returns the new classification with both rows. Throws
+     * {@link MissingReferenceException}, rolling the insert back, if either row is gone.
+     */
+    @Transactional
+    public ClassificationResponseDTO createClassification(int movieId, int categoryId) {
+        Classification newClassification = new Classification();
+        newClassification.setMovieId(movieId);
+        newClassification.setCategoryId(categoryId);
+        newClassification.setDate(LocalDate.now());
+        newClassification.setIsdeleted(false);
+        newClassification.setVersion(0);
+
+        Classification savedClassification = classificationRepository.save(newClassification);
+        ClassificationResponseDTO response = withReferences(savedClassification);
+        long sequence = changeFeedService.record(ChangeFeedService.CLASSIFICATION,
+                savedClassification.getClassificationId(), ChangeOperation.CREATE).getSequence();
+        afterCommit(() -> {
+            catalogStatisticsService.classificationCreated(sequence, savedClassification.getCategoryId(), savedClassification.getDate());
+            similarMovieService.addLink(sequence, savedClassification.getMovieId(), savedClassification.getCategoryId());
+        });
+        return response;
+    }
+
+    /**
+     * Relinks an active classification, guarded by the version it was read at. Returns empty
+     * if it was updated or deleted concurrently, and throws {@link MissingReferenceException}
+     * if the new movie or category is gone.
+     */
+    @Transactional
+    public Optional<ClassificationResponseDTO> updateClassification(Classification existing, int movieId, int categoryId) {
+        int id = existing.getClassificationId();
+        int updatedRows = classificationRepository.updateLinkIfVersion(id, movieId, categoryId, existing.getVersion());
+        if (updatedRows == 0) {
+            return Optional.empty();
+        }
+        Classification updatedClassification = new Classification(id, movieId, categoryId,
+                existing.getDate(), false, existing.getVersion() + 1);
+        ClassificationResponseDTO response = withReferences(updatedClassification);
+        long sequence = changeFeedService.record(ChangeFeedService.CLASSIFICATION, id, ChangeOperation.UPDATE).getSequence();
+        afterCommit(() -> {
+            catalogStatisticsService.classificationCategoryChanged(sequence, existing.getCategoryId(), categoryId);
+            similarMovieService.moveLink(sequence, existing.getMovieId(), existing.getCategoryId(), movieId, categoryId);
+        });
+        return Optional.of(response);
+    }
+
+    @Transactional
+    public Optional<Classification> softDeleteClassification(int id, List<Long> versions) {
+        Optional<Classification> deletedClassification = classificationRepository.softDeleteIfVersion(id, versions);
+        deletedClassification.ifPresent(classification -> {
+            long sequence = changeFeedService.record(ChangeFeedService.CLASSIFICATION, id, ChangeOperation.DELETE).getSequence();
+            afterCommit(() -> {
+                catalogStatisticsService.classificationDeleted(sequence, classification.getCategoryId());
+                similarMovieService.removeLink(sequence, classification.getMovieId(), classification.getCategoryId());
+            });
+        });
+        return deletedClassification;
+    }
+
+    // Read after the write, so a movie or category deleted since it was validated is caught here.
+    private ClassificationResponseDTO withReferences(Classification classification) {
+        Movie movie = movieRepository.findById(classification.getMovieId())
+                .orElseThrow(() -> new MissingReferenceException("Movie " + classification.getMovieId() + " no longer exists."));
+        Category category = categoryRepository.findById(classification.getCategoryId())
+                .orElseThrow(() -> new MissingReferenceException("Category " + classification.getCategoryId() + " no longer exists."));
+        return ClassificationResponseDTO.fromEntities(classification, movie, category);
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,181 @@
+package org.kurgu.moviemanagement.Services;
+
+import jakarta.annotation.PreDestroy;
+import org.kurgu.moviemanagement.Models.ChangeLogEntry;
+import org.kurgu.moviemanagement.Models.ChangeOperation;
+import org.kurgu.moviemanagement.Repositories.ChangeLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Appends catalog writes to the change log and streams it to SSE subscribers.
+ * <p>
+ * Entries are appended inside the transaction of the write they describe, after taking a
+ * transaction-scoped advisory lock. Appends are therefore serialized across all instances
+ * until commit, so sequence numbers become visible strictly in order and a consumer that
+ * resumes after sequence N never skips a later-committing N-1.
+ * <p>
+ * Every subscriber has its own sender thread that reads the change log from its last
+ * delivered sequence. Local commits wake the senders immediately; changes committed by
+ * other instances are picked up by polling. A slow client or a long replay only delays
+ * its own stream.
+ */
+@Service
+public class ChangeFeedService {
+
+    public static final String MOVIE = "movie";
+    public static final String CATEGORY = "category";
+    public static final String CLASSIFICATION = "classification";
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedService.class);
+    private static final long APPEND_LOCK_KEY = 0x4D4D_4348_414E_4745L;
+
+    private final ChangeLogRepository changeLogRepository;
+    private final int pageSize;
+    private final long streamTimeoutMs;
+    private final long pollIntervalMs;
+    private final int maxSubscribers;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    @Autowired
+    public ChangeFeedService(ChangeLogRepository changeLogRepository,
+                             @Value("${moviemanagement.changes.page-size:500}") int pageSize,
+                             @Value("${moviemanagement.changes.stream-timeout-ms:1800000}") long streamTimeoutMs,
+                             @Value("${moviemanagement.changes.poll-interval-ms:1000}") long pollIntervalMs,
+                             @Value("${moviemanagement.changes.max-subscribers:100}") int maxSubscribers) {
+        this.changeLogRepository = changeLogRepository;
+        this.pageSize = pageSize;
+        this.streamTimeoutMs = streamTimeoutMs;
+        this.pollIntervalMs = pollIntervalMs;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public ChangeLogEntry record(String entityType, int entityId, ChangeOperation operation) {
+        changeLogRepository.acquireTransactionLock(APPEND_LOCK_KEY);
+        ChangeLogEntry entry = new ChangeLogEntry();
+        entry.setEntityType(entityType);
+        entry.setEntityId(entityId);
+        entry.setOperation(operation);
+        entry.setChangedAt(Instant.now());
+        ChangeLogEntry savedEntry = changeLogRepository.save(entry);
+        log.debug("Change recorded: {}", savedEntry);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                subscribers.forEach(Subscriber::wake);
+            }
+        });
+        return savedEntry;
+    }
+
+    public List<ChangeLogEntry> getChangesSince(long since, int limit) {
+        int size = Math.max(1, Math.min(limit, pageSize));
+        return changeLogRepository.findBySequenceGreaterThanOrderBySequenceAsc(since, PageRequest.of(0, size));
+    }
+
+    public SseEmitter subscribe(long since) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many change feed subscribers.");
+        }
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, since);
+        emitter.onCompletion(subscriber::stop);
+        emitter.onTimeout(subscriber::stop);
+        emitter.onError(e -> subscriber.stop());
+        subscribers.add(subscriber);
+        subscriber.start();
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> {
+            subscriber.stop();
+            subscriber.emitter.complete();
+        });
+    }
+
+    private final class Subscriber implements Runnable {
+        private final SseEmitter emitter;
+        private final Semaphore signal = new Semaphore(0);
+        private final Thread sender;
+        private volatile boolean active = true;
+        private long lastSequence;
+
+        private Subscriber(SseEmitter emitter, long lastSequence) {
+            this.emitter = emitter;
+            this.lastSequence = lastSequence;
+            this.sender = new Thread(this, "change-feed-sender");
+            this.sender.setDaemon(true);
+        }
+
+        private void start() {
+            sender.start();
+        }
+
+        private void wake() {
+            signal.release();
+        }
+
+        private void stop() {
+            if (active) {
+                active = false;
+                sender.interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            log.info("Change feed subscriber started after sequence {}.", lastSequence);
+            try {
+                while (active) {
+                    List<ChangeLogEntry> page = getChangesSince(lastSequence, pageSize);
+                    for (ChangeLogEntry entry : page) {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(entry.getSequence()))
+                                .name("change")
+                                .data(entry));
+                        lastSequence = entry.getSequence();
+                    }
+                    if (page.size() < pageSize) {
+                        signal.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                        signal.drainPermits();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                if (active) {
+                    log.debug("Dropping change feed subscriber at sequence {}: {}", lastSequence, e.getMessage());
+                    emitter.completeWithError(e);
+                }
+            } finally {
+                active = false;
+                subscribers.remove(this);
+                subscriberCount.decrementAndGet();
+                log.info("Change feed subscriber stopped at sequence {}.", lastSequence);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.kurgu.moviemanagement.Services;
+
+import org.kurgu.moviemanagement.Repositories.CategoryRepository;
+import org.kurgu.moviemanagement.Repositories.MovieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-memory registry of existing movie and category ids used to validate write requests
+ * without a database round trip. A miss falls back to the database, so ids created by
+ * another instance, or before the registry finished loading, are still accepted.
+ */
+@Service
+public class IdRegistryService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdRegistryService.class);
+
+    private final MovieRepository movieRepository;
+    private final CategoryRepository categoryRepository;
+
+    private final IdSet movieIds = new IdSet();
+    private final IdSet categoryIds = new IdSet();
+
+    @Autowired
+    public IdRegistryService(MovieRepository movieRepository, CategoryRepository categoryRepository) {
+        this.movieRepository = movieRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        log.info("Loading movie and category ids into the id registry.");
+        try {
+            movieIds.addAll(movieRepository.findAllIds());
+            categoryIds.addAll(categoryRepository.findAllIds());
+            log.info("Id registry loaded: {} movies, {} categories.", movieIds.size(), categoryIds.size());
+        } catch (Exception e) {
+            log.error("Error loading id registry: {}", e.getMessage(), e);
+        }
+    }
+
+    public boolean movieExists(int movieId) {
+        if (movieIds.contains(movieId)) {
+            return true;
+        }
+        if (movieRepository.existsById(movieId)) {
+            movieIds.add(movieId);
+            return true;
+        }
+        return false;
+    }
+
+    public boolean categoryExists(int categoryId) {
+        if (categoryIds.contains(categoryId)) {
+            return true;
+        }
+        if (categoryRepository.existsById(categoryId)) {
+            categoryIds.add(categoryId);
+            return true;
+        }
+        return false;
+    }
+
+    // Drops an id a write found missing, so the next check goes back to the database.
+    public void forgetMovie(int movieId) {
+        movieIds.remove(movieId);
+    }
+
+    public void forgetCategory(int categoryId) {
+        categoryIds.remove(categoryId);
+    }
+
+    public void movieCreated(int movieId) {
+        movieIds.add(movieId);
+    }
+
+    public void movieDeleted(int movieId) {
+        movieIds.remove(movieId);
+    }
+
+    public void categoryCreated(int categoryId) {
+        categoryIds.add(categoryId);
+    }
+
+    public void categoryDeleted(int categoryId) {
+        categoryIds.remove(categoryId);
+    }
+}
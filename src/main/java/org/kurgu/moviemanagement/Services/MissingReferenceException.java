@@ -0,0 +1,12 @@
+package org.kurgu.moviemanagement.Services;
+
+/**
+ * Thrown from a classification write when the movie or category it links to no longer
+ * exists. The write's transaction is rolled back, so none of its side effects run.
+ */
+public class MissingReferenceException extends RuntimeException {
+
+    public MissingReferenceException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,318 @@
+package org.kurgu.moviemanagement.Services;
+
+import org.kurgu.moviemanagement.Repositories.ChangeLogRepository;
+import org.kurgu.moviemanagement.Repositories.ClassificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Ranks movies by the active categories they share with a given movie, using a Jaccard
+ * index in which each category is weighted by its inverse movie frequency.
+ * <p>
+ * The sparse movie/category matrix is held in memory in both directions: a bitmap of movie
+ * ids per category (posting list) and a sorted {@code int[]} of category ids per movie. A query
+ * splits the movie id range into chunks and, in parallel, sums the weights of the query movie's
+ * posting lists per candidate in each chunk, keeping a bounded top-K per chunk.
+ * <p>
+ * Local classification writes update the index after commit, tagged with their change log
+ * sequence. {@link #rebuild()} periodically reloads it from one database snapshot, which also
+ * picks up links written by other instances, the same way the catalog statistics reconcile.
+ */
+@Service
+public class SimilarMovieService {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarMovieService.class);
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int[] NO_CATEGORIES = new int[0];
+    private static final Comparator<ScoredMovie> BY_SCORE = Comparator.comparingDouble(ScoredMovie::score)
+            .thenComparing(Comparator.comparingInt(ScoredMovie::movieId).reversed());
+
+    private final ClassificationRepository classificationRepository;
+    private final ChangeLogRepository changeLogRepository;
+    private final TransactionTemplate snapshotTransaction;
+
+    // Queries hold the read lock for their whole parallel pass; link updates and swaps take the write lock.
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+    private long appliedThrough;
+    private List<LinkChange> journal;
+
+    @Autowired
+    public SimilarMovieService(ClassificationRepository classificationRepository,
+                               ChangeLogRepository changeLogRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.classificationRepository = classificationRepository;
+        this.changeLogRepository = changeLogRepository;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+    }
+
+    @Scheduled(fixedDelayString = "${moviemanagement.similarity.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        log.info("Rebuilding the movie/category index for similarity scoring.");
+        List<LinkChange> pending = new ArrayList<>();
+        setJournal(pending);
+        try {
+            Snapshot snapshot = snapshotTransaction.execute(status -> readSnapshot());
+            int replayed = 0;
+            lock.writeLock().lock();
+            try {
+                for (LinkChange change : pending) {
+                    if (change.sequence() > snapshot.lastSequence()) {
+                        change.change().accept(snapshot.index());
+                        replayed++;
+                    }
+                }
+                index = snapshot.index();
+                appliedThrough = snapshot.lastSequence();
+            } finally {
+                journal = null;
+                lock.writeLock().unlock();
+            }
+            log.info("Similarity index rebuilt at sequence {} ({} later changes replayed): {} movies.",
+                    snapshot.lastSequence(), replayed, snapshot.index().classifiedMovieCount);
+        } catch (Exception e) {
+            log.error("Error rebuilding the similarity index: {}", e.getMessage(), e);
+            setJournal(null);
+        }
+    }
+
+    private void setJournal(List<LinkChange> pending) {
+        lock.writeLock().lock();
+        try {
+            journal = pending;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Snapshot readSnapshot() {
+        // Under REPEATABLE READ both queries see the snapshot taken by the first one.
+        long lastSequence = changeLogRepository.findLastSequence();
+        Index rebuilt = new Index();
+        for (Object[] pair : classificationRepository.findActiveMovieCategoryPairs()) {
+            rebuilt.add((Integer) pair[0], (Integer) pair[1]);
+        }
+        return new Snapshot(lastSequence, rebuilt);
+    }
+
+    public void addLink(long sequence, int movieId, int categoryId) {
+        apply(sequence, index -> index.add(movieId, categoryId));
+    }
+
+    public void removeLink(long sequence, int movieId, int categoryId) {
+        apply(sequence, index -> index.remove(movieId, categoryId));
+    }
+
+    public void moveLink(long sequence, int oldMovieId, int oldCategoryId, int newMovieId, int newCategoryId) {
+        if (oldMovieId != newMovieId || oldCategoryId != newCategoryId) {
+            apply(sequence, index -> {
+                index.remove(oldMovieId, oldCategoryId);
+                index.add(newMovieId, newCategoryId);
+            });
+        }
+    }
+
+    private void apply(long sequence, Consumer<Index> change) {
+        lock.writeLock().lock();
+        try {
+            // Already in the snapshot the live index was rebuilt from.
+            if (sequence <= appliedThrough) {
+                return;
+            }
+            change.accept(index);
+            if (journal != null) {
+                journal.add(new LinkChange(sequence, change));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ScoredMovie> findSimilar(int movieId, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            Index current = index;
+            int[] ownCategories = current.categoriesOf(movieId);
+            if (ownCategories.length == 0) {
+                return Collections.emptyList();
+            }
+            double[] weights = current.categoryWeights();
+            double queryWeight = 0;
+            int upperBound = 0;
+            for (int categoryId : ownCategories) {
+                queryWeight += weights[categoryId];
+                upperBound = Math.max(upperBound, current.moviesByCategory[categoryId].length());
+            }
+
+            double ownWeight = queryWeight;
+            int bound = upperBound;
+            int chunks = (bound + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            List<ScoredMovie> result = IntStream.range(0, chunks)
+                    .parallel()
+                    .mapToObj(chunk -> scoreChunk(current, movieId, ownCategories, weights, ownWeight,
+                            chunk * CHUNK_SIZE, Math.min(bound, (chunk + 1) * CHUNK_SIZE), limit))
+                    .flatMap(List::stream)
+                    .sorted(BY_SCORE.reversed())
+                    .limit(limit)
+                    .toList();
+            log.debug("Scored similar movies for movie ID {} in {} us.", movieId, (System.nanoTime() - start) / 1_000);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static List<ScoredMovie> scoreChunk(Index index, int movieId, int[] ownCategories, double[] weights,
+                                                double queryWeight, int from, int to, int limit) {
+        double[] sharedWeight = new double[to - from];
+        int[] sharedCount = new int[to - from];
+        for (int categoryId : ownCategories) {
+            BitSet movies = index.moviesByCategory[categoryId];
+            double weight = weights[categoryId];
+            for (int candidate = movies.nextSetBit(from); candidate >= 0 && candidate < to;
+                 candidate = movies.nextSetBit(candidate + 1)) {
+                sharedWeight[candidate - from] += weight;
+                sharedCount[candidate - from]++;
+            }
+        }
+
+        PriorityQueue<ScoredMovie> heap = new PriorityQueue<>(BY_SCORE);
+        for (int offset = 0; offset < sharedCount.length; offset++) {
+            int candidate = from + offset;
+            if (sharedCount[offset] == 0 || candidate == movieId) {
+                continue;
+            }
+            double candidateWeight = 0;
+            for (int categoryId : index.categoriesByMovie[candidate]) {
+                candidateWeight += weights[categoryId];
+            }
+            double union = queryWeight + candidateWeight - sharedWeight[offset];
+            heap.offer(new ScoredMovie(candidate, sharedWeight[offset] / union, sharedCount[offset]));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        return List.copyOf(heap);
+    }
+
+    private static final class Index {
+        private BitSet[] moviesByCategory = new BitSet[64];
+        private int[] movieCountByCategory = new int[64];
+        private int[][] categoriesByMovie = new int[1024][];
+        private int classifiedMovieCount;
+
+        private void add(int movieId, int categoryId) {
+            if (movieId < 0 || categoryId < 0) {
+                return;
+            }
+            ensureCapacity(movieId, categoryId);
+            BitSet movies = moviesByCategory[categoryId];
+            if (movies == null) {
+                movies = new BitSet();
+                moviesByCategory[categoryId] = movies;
+            }
+            if (movies.get(movieId)) {
+                return;
+            }
+            movies.set(movieId);
+            movieCountByCategory[categoryId]++;
+
+            int[] categories = categoriesByMovie[movieId];
+            if (categories == null) {
+                classifiedMovieCount++;
+                categoriesByMovie[movieId] = new int[]{categoryId};
+            } else {
+                int insertAt = -Arrays.binarySearch(categories, categoryId) - 1;
+                int[] updated = new int[categories.length + 1];
+                System.arraycopy(categories, 0, updated, 0, insertAt);
+                updated[insertAt] = categoryId;
+                System.arraycopy(categories, insertAt, updated, insertAt + 1, categories.length - insertAt);
+                categoriesByMovie[movieId] = updated;
+            }
+        }
+
+        private void remove(int movieId, int categoryId) {
+            if (movieId < 0 || movieId >= categoriesByMovie.length
+                    || categoryId < 0 || categoryId >= moviesByCategory.length) {
+                return;
+            }
+            BitSet movies = moviesByCategory[categoryId];
+            if (movies == null || !movies.get(movieId)) {
+                return;
+            }
+            movies.clear(movieId);
+            movieCountByCategory[categoryId]--;
+
+            int[] categories = categoriesByMovie[movieId];
+            int removeAt = Arrays.binarySearch(categories, categoryId);
+            int[] updated = new int[categories.length - 1];
+            System.arraycopy(categories, 0, updated, 0, removeAt);
+            System.arraycopy(categories, removeAt + 1, updated, removeAt, categories.length - removeAt - 1);
+            categoriesByMovie[movieId] = updated.length == 0 ? null : updated;
+            if (updated.length == 0) {
+                classifiedMovieCount--;
+            }
+        }
+
+        private int[] categoriesOf(int movieId) {
+            return movieId >= 0 && movieId < categoriesByMovie.length && categoriesByMovie[movieId] != null
+                    ? categoriesByMovie[movieId] : NO_CATEGORIES;
+        }
+
+        private double[] categoryWeights() {
+            int movieCount = Math.max(1, classifiedMovieCount);
+            double[] weights = new double[moviesByCategory.length];
+            for (int categoryId = 0; categoryId < weights.length; categoryId++) {
+                int frequency = movieCountByCategory[categoryId];
+                if (frequency > 0) {
+                    weights[categoryId] = Math.log(1.0 + (double) movieCount / frequency);
+                }
+            }
+            return weights;
+        }
+
+        private void ensureCapacity(int movieId, int categoryId) {
+            if (movieId >= categoriesByMovie.length) {
+                categoriesByMovie = Arrays.copyOf(categoriesByMovie, Math.max(movieId + 1, categoriesByMovie.length * 2));
+            }
+            if (categoryId >= moviesByCategory.length) {
+                int length = Math.max(categoryId + 1, moviesByCategory.length * 2);
+                moviesByCategory = Arrays.copyOf(moviesByCategory, length);
+                movieCountByCategory = Arrays.copyOf(movieCountByCategory, length);
+            }
+        }
+    }
+
+    private record LinkChange(long sequence, Consumer<Index> change) {
+    }
+
+    private record Snapshot(long lastSequence, Index index) {
+    }
+
+    public record ScoredMovie(int movieId, double score, int sharedCategories) {
+    }
+}
@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS change_log (
+    sequence BIGSERIAL PRIMARY KEY,
+    entity_type VARCHAR(32) NOT NULL,
+    entity_id INTEGER NOT NULL,
+    operation VARCHAR(16) NOT NULL,
+    changed_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+ALTER TABLE movie ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE category ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE classification ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
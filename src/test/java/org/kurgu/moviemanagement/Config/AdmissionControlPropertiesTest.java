@@ -0,0 +1,26 @@
+package org.kurgu.moviemanagement.Config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlPropertiesTest {
+
+    @Test
+    void partialEndpointSettingsFallBackToConfiguredDefaults() {
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.getDefaults().setMinLimit(5);
+        properties.getDefaults().setTargetLatencyMs(400L);
+        AdmissionControlProperties.Limit endpoint = new AdmissionControlProperties.Limit();
+        endpoint.setMaxLimit(8);
+        properties.getEndpoints().put("MovieController.getAllMovies", endpoint);
+
+        AdmissionControlProperties.Limit limit = properties.limitFor("MovieController.getAllMovies");
+
+        assertThat(limit.getInitialLimit()).isEqualTo(20);
+        assertThat(limit.getMinLimit()).isEqualTo(5);
+        assertThat(limit.getMaxLimit()).isEqualTo(8);
+        assertThat(limit.getTargetLatencyMs()).isEqualTo(400L);
+        assertThat(properties.limitFor("CategoryController.getAllCategories")).isSameAs(properties.getDefaults());
+    }
+}
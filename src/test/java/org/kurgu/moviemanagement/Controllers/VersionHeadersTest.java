@@ -0,0 +1,60 @@
+package org.kurgu.moviemanagement.Controllers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionHeadersTest {
+
+    @Test
+    void absentOrWildcardMatchesAnyVersion() {
+        assertThat(VersionHeaders.parseIfMatch(null)).containsExactly(VersionHeaders.ANY_VERSION);
+        assertThat(VersionHeaders.parseIfMatch("  ")).containsExactly(VersionHeaders.ANY_VERSION);
+        assertThat(VersionHeaders.parseIfMatch(" * ")).containsExactly(VersionHeaders.ANY_VERSION);
+        assertThat(VersionHeaders.matches(VersionHeaders.parseIfMatch("*"), 7)).isTrue();
+    }
+
+    @Test
+    void parsesStrongETagLists() {
+        assertThat(VersionHeaders.parseIfMatch("\"3\"")).containsExactly(3L);
+        assertThat(VersionHeaders.parseIfMatch("\"1\", \"2\"")).containsExactly(1L, 2L);
+        assertThat(VersionHeaders.parseIfMatch("\"1\",,\"2\",")).containsExactly(1L, 2L);
+
+        List<Long> versions = VersionHeaders.parseIfMatch("\"1\", \"2\"");
+        assertThat(VersionHeaders.isUnconditional(versions)).isFalse();
+        assertThat(VersionHeaders.matches(versions, 2)).isTrue();
+        assertThat(VersionHeaders.matches(versions, 3)).isFalse();
+    }
+
+    @Test
+    void weakAndForeignETagsMatchNoVersion() {
+        assertThat(VersionHeaders.parseIfMatch("W/\"1\"")).containsExactly(VersionHeaders.NO_VERSION);
+        assertThat(VersionHeaders.parseIfMatch("\"abc\"")).containsExactly(VersionHeaders.NO_VERSION);
+        assertThat(VersionHeaders.parseIfMatch("\"\"")).containsExactly(VersionHeaders.NO_VERSION);
+        assertThat(VersionHeaders.parseIfMatch("\"-1\"")).containsExactly(VersionHeaders.NO_VERSION);
+        assertThat(VersionHeaders.parseIfMatch("\"a,b\", W/\"2\"")).containsExactly(VersionHeaders.NO_VERSION);
+        assertThat(VersionHeaders.parseIfMatch("\"1\", W/\"2\", \"x\"")).containsExactly(1L);
+
+        List<Long> versions = VersionHeaders.parseIfMatch("W/\"1\"");
+        assertThat(VersionHeaders.isUnconditional(versions)).isFalse();
+        assertThat(VersionHeaders.matches(versions, 1)).isFalse();
+    }
+
+    @Test
+    void rejectsUnparseableHeaders() {
+        assertThat(VersionHeaders.parseIfMatch("1")).isNull();
+        assertThat(VersionHeaders.parseIfMatch("\"1")).isNull();
+        assertThat(VersionHeaders.parseIfMatch("W/1")).isNull();
+        assertThat(VersionHeaders.parseIfMatch("\"1\" \"2\"")).isNull();
+        assertThat(VersionHeaders.parseIfMatch("\"1\", *")).isNull();
+        assertThat(VersionHeaders.parseIfMatch(",")).isNull();
+    }
+
+    @Test
+    void formatsStrongETag() {
+        assertThat(VersionHeaders.eTag(4)).isEqualTo("\"4\"");
+        assertThat(VersionHeaders.parseIfMatch(VersionHeaders.eTag(4))).containsExactly(4L);
+    }
+}
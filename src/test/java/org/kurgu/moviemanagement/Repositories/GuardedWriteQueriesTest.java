@@ -0,0 +1,168 @@
+package org.kurgu.moviemanagement.Repositories;
+
+import org.junit.jupiter.api.Test;
+import org.kurgu.moviemanagement.Models.Category;
+import org.kurgu.moviemanagement.Models.Classification;
+import org.kurgu.moviemanagement.Models.Movie;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the native UPDATE ... RETURNING and guarded DELETE statements against the configured PostgreSQL database.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class GuardedWriteQueriesTest {
+
+    private static final List<Long> ANY_VERSION = List.of(-1L);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ClassificationRepository classificationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void movieUpdateReturnsNewAndPreviousStateOnlyForMatchingVersion() {
+        int id = persist(new Movie(0, "Title", "Director", 2000, 0)).getMovie_id();
+
+        Optional<MovieRepository.UpdateResult> updated = movieRepository.updateIfVersion(id, "New title", null, 2001, List.of(0L));
+        assertThat(updated).isPresent();
+        assertThat(updated.get().getTitle()).isEqualTo("New title");
+        assertThat(updated.get().getDirector()).isEqualTo("Director");
+        assertThat(updated.get().getYear()).isEqualTo(2001);
+        assertThat(updated.get().getPreviousYear()).isEqualTo(2000);
+        assertThat(updated.get().getVersion()).isEqualTo(1L);
+
+        assertThat(movieRepository.updateIfVersion(id, "Stale", null, 2002, List.of(0L))).isEmpty();
+        assertThat(movieRepository.updateIfVersion(id, "Listed", null, 2002, List.of(5L, 1L))).get()
+                .extracting(MovieRepository.UpdateResult::getVersion).isEqualTo(2L);
+        assertThat(movieRepository.updateIfVersion(id, "Any", null, 2003, ANY_VERSION)).get()
+                .extracting(MovieRepository.UpdateResult::getVersion).isEqualTo(3L);
+        assertThat(movieRepository.updateIfVersion(id + 1_000_000, "Missing", null, 2003, ANY_VERSION)).isEmpty();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentMovieUpdatesEachReportTheYearTheyReplaced() throws Exception {
+        int id = movieRepository.save(new Movie(0, "Title", "Director", 2000, 0)).getMovie_id();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch firstUpdated = new CountDownLatch(1);
+        CountDownLatch commitFirst = new CountDownLatch(1);
+        try {
+            Future<MovieRepository.UpdateResult> first = executor.submit(() ->
+                    new TransactionTemplate(transactionManager).execute(status -> {
+                        MovieRepository.UpdateResult result = movieRepository.updateIfVersion(id, null, null, 2001, ANY_VERSION).orElseThrow();
+                        firstUpdated.countDown();
+                        awaitQuietly(commitFirst);
+                        return result;
+                    }));
+            assertThat(firstUpdated.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // Blocks on the row lock held by the first update until it commits.
+            Future<Optional<MovieRepository.UpdateResult>> second = executor.submit(() ->
+                    movieRepository.updateIfVersion(id, null, null, 2002, ANY_VERSION));
+            Thread.sleep(200);
+            commitFirst.countDown();
+
+            assertThat(first.get(10, TimeUnit.SECONDS).getPreviousYear()).isEqualTo(2000);
+            MovieRepository.UpdateResult secondResult = second.get(10, TimeUnit.SECONDS).orElseThrow();
+            assertThat(secondResult.getPreviousYear()).isEqualTo(2001);
+            assertThat(secondResult.getYear()).isEqualTo(2002);
+            assertThat(secondResult.getVersion()).isEqualTo(2L);
+        } finally {
+            commitFirst.countDown();
+            executor.shutdownNow();
+            movieRepository.deleteById(id);
+        }
+    }
+
+    @Test
+    void movieDeleteRequiresMatchingVersionAndNoClassifications() {
+        int id = persist(new Movie(0, "Title", "Director", 2000, 0)).getMovie_id();
+        int categoryId = persist(new Category(0, "Category", 0)).getCategory_id();
+        Classification classification = persist(new Classification(0, id, categoryId, LocalDate.now(), false, 0));
+
+        assertThat(movieRepository.deleteUnclassifiedIfVersion(id, ANY_VERSION)).isEmpty();
+
+        entityManager.remove(entityManager.find(Classification.class, classification.getClassificationId()));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(movieRepository.deleteUnclassifiedIfVersion(id, List.of(1L))).isEmpty();
+        assertThat(movieRepository.deleteUnclassifiedIfVersion(id, List.of(0L))).get()
+                .extracting(Movie::getMovie_id).isEqualTo(id);
+        assertThat(movieRepository.existsById(id)).isFalse();
+    }
+
+    @Test
+    void categoryUpdateAndDeleteAreGuardedByVersion() {
+        int id = persist(new Category(0, "Category", 0)).getCategory_id();
+
+        assertThat(categoryRepository.updateNameIfVersion(id, "Stale", List.of(3L))).isEmpty();
+        Optional<Category> updated = categoryRepository.updateNameIfVersion(id, "Renamed", List.of(0L));
+        assertThat(updated).isPresent();
+        assertThat(updated.get().getName()).isEqualTo("Renamed");
+        assertThat(updated.get().getVersion()).isEqualTo(1L);
+        entityManager.clear();
+
+        assertThat(categoryRepository.deleteUnclassifiedIfVersion(id, List.of(0L))).isEmpty();
+        assertThat(categoryRepository.deleteUnclassifiedIfVersion(id, List.of(0L, 1L))).isPresent();
+        assertThat(categoryRepository.existsById(id)).isFalse();
+    }
+
+    @Test
+    void classificationSoftDeleteIsGuardedByVersionAndActiveState() {
+        int movieId = persist(new Movie(0, "Title", "Director", 2000, 0)).getMovie_id();
+        int categoryId = persist(new Category(0, "Category", 0)).getCategory_id();
+        int id = persist(new Classification(0, movieId, categoryId, LocalDate.now(), false, 0)).getClassificationId();
+
+        assertThat(classificationRepository.softDeleteIfVersion(id, List.of(2L))).isEmpty();
+        Optional<Classification> deleted = classificationRepository.softDeleteIfVersion(id, List.of(0L));
+        assertThat(deleted).isPresent();
+        assertThat(deleted.get().isIsdeleted()).isTrue();
+        assertThat(deleted.get().getVersion()).isEqualTo(1L);
+        entityManager.clear();
+
+        assertThat(classificationRepository.softDeleteIfVersion(id, ANY_VERSION)).isEmpty();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Flushes and detaches the row so the native statements are checked against the database, not the session.
+    private <T> T persist(T entity) {
+        T persisted = entityManager.persistFlushFind(entity);
+        entityManager.clear();
+        return persisted;
+    }
+}
@@ -0,0 +1,88 @@
+package org.kurgu.moviemanagement.Services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void growsByOneWhileFastAndAtCapacity() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 2, 1, 3, 100, clock::get);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        limiter.release(FAST, true);
+        assertThat(limiter.getLimit()).isEqualTo(3);
+
+        // Below capacity there is no evidence more concurrency is needed.
+        limiter.release(FAST, true);
+        assertThat(limiter.getLimit()).isEqualTo(3);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        limiter.release(FAST, true);
+        assertThat(limiter.getLimit()).isEqualTo(3);
+        assertThat(limiter.getShed()).isEqualTo(1);
+    }
+
+    @Test
+    void shrinksAtMostOncePerWindow() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 20, 2, 50, 100, clock::get);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+        }
+        for (int i = 0; i < 10; i++) {
+            limiter.release(SLOW, true);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(18);
+
+        // The window is the smoothed latency (500 ms), which is longer than the target.
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(400));
+        limiter.tryAcquire();
+        limiter.release(SLOW, true);
+        assertThat(limiter.getLimit()).isEqualTo(18);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        limiter.tryAcquire();
+        limiter.release(SLOW, true);
+        assertThat(limiter.getLimit()).isEqualTo(16);
+    }
+
+    @Test
+    void neverShrinksBelowMinimum() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 3, 2, 50, 100, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.release(SLOW, true);
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void ignoresFailedRequests() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 1, 1, 50, 100, clock::get);
+
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        limiter.tryAcquire();
+        limiter.release(FAST, false);
+
+        assertThat(limiter.getLimit()).isEqualTo(1);
+        assertThat(limiter.getSmoothedLatencyMs()).isZero();
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
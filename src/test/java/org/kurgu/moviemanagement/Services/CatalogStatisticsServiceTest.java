@@ -0,0 +1,107 @@
+package org.kurgu.moviemanagement.Services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kurgu.moviemanagement.Repositories.ChangeLogRepository;
+import org.kurgu.moviemanagement.Repositories.ClassificationRepository;
+import org.kurgu.moviemanagement.Repositories.MovieRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogStatisticsServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 1);
+
+    private MovieRepository movieRepository;
+    private ClassificationRepository classificationRepository;
+    private ChangeLogRepository changeLogRepository;
+    private CatalogStatisticsService service;
+
+    @BeforeEach
+    void setUp() {
+        movieRepository = mock(MovieRepository.class);
+        classificationRepository = mock(ClassificationRepository.class);
+        changeLogRepository = mock(ChangeLogRepository.class);
+        service = new CatalogStatisticsService(movieRepository, classificationRepository, changeLogRepository,
+                mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void appliesIncrementalChanges() {
+        service.movieCreated(1, 1999);
+        service.movieCreated(2, 1999);
+        service.movieYearChanged(3, 1999, 2001);
+        service.movieDeleted(4, 1999);
+
+        service.classificationCreated(5, 7, TODAY);
+        service.classificationCreated(6, 7, TODAY);
+        service.classificationCategoryChanged(7, 7, 8);
+        service.classificationDeleted(8, 8);
+
+        assertThat(service.getMovieCount(1999)).isZero();
+        assertThat(service.getMovieCount(2001)).isEqualTo(1);
+        assertThat(service.getMoviesByYear()).isEqualTo(Map.of(2001, 1L));
+        assertThat(service.getActiveClassificationCount(7)).isEqualTo(1);
+        assertThat(service.getActiveClassificationCount(8)).isZero();
+        assertThat(service.getClassificationCount(TODAY)).isEqualTo(2);
+    }
+
+    @Test
+    void reconcileReplacesCountersWithAggregates() {
+        service.movieCreated(1, 1999);
+        stubSnapshot(10);
+
+        service.reconcile();
+
+        assertThat(service.getMoviesByYear()).isEqualTo(Map.of(2001, 3L));
+        assertThat(service.getActiveClassificationsByCategory()).isEqualTo(Map.of(7, 4L));
+        assertThat(service.getClassificationsByDate()).isEqualTo(Map.of(TODAY, 4L));
+    }
+
+    @Test
+    void reconcileReplaysOnlyDeltasCommittedAfterTheSnapshot() {
+        stubSnapshot(10);
+        when(classificationRepository.countActiveGroupByCategoryId()).thenAnswer(invocation -> {
+            // Sequence 9 is already in the aggregates; sequence 11 committed after the snapshot.
+            service.classificationCreated(9, 7, TODAY);
+            service.classificationCreated(11, 7, TODAY);
+            return List.<Object[]>of(new Object[]{7, 4L});
+        });
+
+        service.reconcile();
+
+        assertThat(service.getActiveClassificationCount(7)).isEqualTo(5);
+        assertThat(service.getClassificationCount(TODAY)).isEqualTo(5);
+
+        service.classificationDeleted(12, 7);
+        assertThat(service.getActiveClassificationCount(7)).isEqualTo(4);
+    }
+
+    @Test
+    void dropsDeltasAlreadyInTheReconciledSnapshot() {
+        stubSnapshot(10);
+        service.reconcile();
+
+        // Sequence 9 committed before the snapshot but its callback ran only after the swap.
+        service.classificationCreated(9, 7, TODAY);
+        assertThat(service.getActiveClassificationCount(7)).isEqualTo(4);
+        assertThat(service.getClassificationCount(TODAY)).isEqualTo(4);
+
+        service.classificationCreated(11, 7, TODAY);
+        assertThat(service.getActiveClassificationCount(7)).isEqualTo(5);
+    }
+
+    private void stubSnapshot(long lastSequence) {
+        when(changeLogRepository.findLastSequence()).thenReturn(lastSequence);
+        when(classificationRepository.countActiveGroupByCategoryId()).thenReturn(List.<Object[]>of(new Object[]{7, 4L}));
+        when(movieRepository.countGroupByYear()).thenReturn(List.<Object[]>of(new Object[]{2001, 3L}));
+        when(classificationRepository.countGroupByDate()).thenReturn(List.<Object[]>of(new Object[]{TODAY, 4L}));
+    }
+}
@@ -0,0 +1,63 @@
+package org.kurgu.moviemanagement.Services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kurgu.moviemanagement.Models.Classification;
+import org.kurgu.moviemanagement.Models.Movie;
+import org.kurgu.moviemanagement.Repositories.CategoryRepository;
+import org.kurgu.moviemanagement.Repositories.ClassificationRepository;
+import org.kurgu.moviemanagement.Repositories.MovieRepository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CatalogWriteServiceTest {
+
+    private final MovieRepository movieRepository = mock(MovieRepository.class);
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private final ClassificationRepository classificationRepository = mock(ClassificationRepository.class);
+    private final ChangeFeedService changeFeedService = mock(ChangeFeedService.class);
+    private final CatalogStatisticsService catalogStatisticsService = mock(CatalogStatisticsService.class);
+    private final SimilarMovieService similarMovieService = mock(SimilarMovieService.class);
+    private final IdRegistryService idRegistryService = mock(IdRegistryService.class);
+
+    private CatalogWriteService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CatalogWriteService(movieRepository, categoryRepository, classificationRepository,
+                changeFeedService, catalogStatisticsService, similarMovieService, idRegistryService);
+    }
+
+    @Test
+    void createFailsBeforeAnySideEffectWhenMovieIsGone() {
+        when(classificationRepository.save(any(Classification.class))).thenAnswer(invocation -> {
+            Classification classification = invocation.getArgument(0);
+            classification.setClassificationId(5);
+            return classification;
+        });
+        when(movieRepository.findById(1)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.createClassification(1, 2)).isInstanceOf(MissingReferenceException.class);
+        verifyNoInteractions(changeFeedService, catalogStatisticsService, similarMovieService);
+    }
+
+    @Test
+    void updateFailsBeforeAnySideEffectWhenCategoryIsGone() {
+        Classification existing = new Classification(5, 1, 2, LocalDate.now(), false, 3);
+        when(classificationRepository.updateLinkIfVersion(anyInt(), anyInt(), anyInt(), anyLong())).thenReturn(1);
+        when(movieRepository.findById(1)).thenReturn(Optional.of(new Movie(1, "Title", "Director", 2000, 0)));
+        when(categoryRepository.findById(4)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.updateClassification(existing, 1, 4)).isInstanceOf(MissingReferenceException.class);
+        verifyNoInteractions(changeFeedService, catalogStatisticsService, similarMovieService);
+    }
+}
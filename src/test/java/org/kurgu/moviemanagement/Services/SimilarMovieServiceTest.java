@@ -0,0 +1,136 @@
+package org.kurgu.moviemanagement.Services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kurgu.moviemanagement.Repositories.ChangeLogRepository;
+import org.kurgu.moviemanagement.Repositories.ClassificationRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SimilarMovieServiceTest {
+
+    // Movie 1: {10, 20}, 2: {10, 20}, 3: {10}, 4: {20, 30}, 5: {30}
+    private static final int[][] FIXTURE = {{1, 10}, {1, 20}, {2, 10}, {2, 20}, {3, 10}, {4, 20}, {4, 30}, {5, 30}};
+
+    private final ClassificationRepository classificationRepository = mock(ClassificationRepository.class);
+    private final ChangeLogRepository changeLogRepository = mock(ChangeLogRepository.class);
+    private SimilarMovieService service;
+    private long sequence;
+
+    @BeforeEach
+    void setUp() {
+        service = newService();
+        for (int[] link : FIXTURE) {
+            service.addLink(++sequence, link[0], link[1]);
+        }
+    }
+
+    @Test
+    void ranksByWeightedJaccard() {
+        // 5 classified movies; categories 10 and 20 are on 3 movies each, category 30 on 2.
+        double common = Math.log(1.0 + 5.0 / 3.0);
+        double rare = Math.log(1.0 + 5.0 / 2.0);
+
+        List<SimilarMovieService.ScoredMovie> similar = service.findSimilar(1, 10);
+
+        assertThat(similar).extracting(SimilarMovieService.ScoredMovie::movieId).containsExactly(2, 3, 4);
+        assertThat(similar).extracting(SimilarMovieService.ScoredMovie::sharedCategories).containsExactly(2, 1, 1);
+        assertThat(similar.get(0).score()).isCloseTo(1.0, within(1e-9));
+        assertThat(similar.get(1).score()).isCloseTo(0.5, within(1e-9));
+        assertThat(similar.get(2).score()).isCloseTo(common / (2 * common + rare), within(1e-9));
+    }
+
+    @Test
+    void limitsToTopK() {
+        assertThat(service.findSimilar(1, 1)).extracting(SimilarMovieService.ScoredMovie::movieId).containsExactly(2);
+    }
+
+    @Test
+    void reflectsIncrementalUpdates() {
+        service.moveLink(++sequence, 3, 10, 3, 30);
+        service.removeLink(++sequence, 2, 20);
+
+        assertThat(service.findSimilar(1, 10)).extracting(SimilarMovieService.ScoredMovie::movieId).containsExactly(2, 4);
+        assertThat(service.findSimilar(99, 10)).isEmpty();
+    }
+
+    @Test
+    void rebuildPicksUpLinksWrittenElsewhereAndDropsLateLocalChanges() {
+        List<Object[]> pairs = fixturePairs();
+        // Written by another instance, so no local change was ever applied for it.
+        pairs.add(new Object[]{6, 10});
+        pairs.add(new Object[]{6, 20});
+        stubSnapshot(20, pairs);
+
+        service.rebuild();
+        // Committed at sequence 15, inside the snapshot, but its after-commit callback ran late.
+        service.addLink(15, 3, 20);
+
+        List<SimilarMovieService.ScoredMovie> similar = service.findSimilar(1, 10);
+        assertThat(similar).extracting(SimilarMovieService.ScoredMovie::movieId).containsExactly(2, 6, 3, 4);
+        assertThat(similar.get(2).sharedCategories()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuildReplaysOnlyChangesCommittedAfterTheSnapshot() {
+        when(changeLogRepository.findLastSequence()).thenReturn(10L);
+        when(classificationRepository.findActiveMovieCategoryPairs()).thenAnswer(invocation -> {
+            // Sequence 9 is already in the snapshot; the soft delete at 11 committed after it.
+            service.addLink(9, 5, 10);
+            service.removeLink(11, 2, 20);
+            return fixturePairs();
+        });
+
+        service.rebuild();
+
+        assertThat(service.findSimilar(1, 10)).extracting(SimilarMovieService.ScoredMovie::sharedCategories).containsExactly(1, 1, 1);
+        assertThat(service.findSimilar(2, 10)).extracting(SimilarMovieService.ScoredMovie::movieId).containsExactly(3, 1);
+        assertThat(service.findSimilar(5, 10)).extracting(SimilarMovieService.ScoredMovie::movieId).containsExactly(4);
+    }
+
+    @Test
+    void ranksAcrossChunksOfALargeCatalog() {
+        SimilarMovieService large = newService();
+        int movies = 250_000;
+        for (int movieId = 1; movieId <= movies; movieId++) {
+            large.addLink(++sequence, movieId, 1);
+            large.addLink(++sequence, movieId, 2 + movieId % 10);
+            large.addLink(++sequence, movieId, 20 + movieId % 50);
+            large.addLink(++sequence, movieId, 100 + movieId % 7);
+        }
+
+        // Movies congruent to 1 modulo 350 share all four categories with movie 1.
+        List<SimilarMovieService.ScoredMovie> similar = large.findSimilar(1, 10);
+
+        assertThat(similar).extracting(SimilarMovieService.ScoredMovie::movieId)
+                .containsExactly(351, 701, 1051, 1401, 1751, 2101, 2451, 2801, 3151, 3501);
+        assertThat(similar).allSatisfy(scored -> {
+            assertThat(scored.sharedCategories()).isEqualTo(4);
+            assertThat(scored.score()).isCloseTo(1.0, within(1e-9));
+        });
+    }
+
+    private SimilarMovieService newService() {
+        return new SimilarMovieService(classificationRepository, changeLogRepository, mock(PlatformTransactionManager.class));
+    }
+
+    private void stubSnapshot(long lastSequence, List<Object[]> pairs) {
+        when(changeLogRepository.findLastSequence()).thenReturn(lastSequence);
+        when(classificationRepository.findActiveMovieCategoryPairs()).thenReturn(pairs);
+    }
+
+    private static List<Object[]> fixturePairs() {
+        List<Object[]> pairs = new ArrayList<>();
+        for (int[] link : FIXTURE) {
+            pairs.add(new Object[]{link[0], link[1]});
+        }
+        return pairs;
+    }
+}